@@ -0,0 +1,69 @@
+package com.isaithalam.bench;
+
+import com.isaithalam.IsaiThalamApplication;
+import com.isaithalam.importer.CatalogueImporter;
+import com.isaithalam.search.CatalogueIndexLoader;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+// The real application context, backed by its own in-memory H2 database and seeded with a
+// generated catalogue, so service-level benchmarks run the same JPA, JDBC and index code
+// as production. Upstream providers are stubbed and background jobs are slowed to a
+// crawl so they don't run inside measurements.
+final class BenchmarkApp implements AutoCloseable {
+    private final ConfigurableApplicationContext context;
+    private final List<CatalogueDataset.Row> rows;
+    private final CatalogueDataset dataset;
+
+    private BenchmarkApp(ConfigurableApplicationContext context, CatalogueDataset dataset,
+                         List<CatalogueDataset.Row> rows) {
+        this.context = context;
+        this.dataset = dataset;
+        this.rows = rows;
+    }
+
+    static BenchmarkApp start(int songs) throws IOException {
+        // Passed as arguments so they override application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(IsaiThalamApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime(),
+                        "--isaithalam.provider.source=stub",
+                        "--isaithalam.provider.stub.latency-ms=0",
+                        "--isaithalam.provider.stub.jitter-ms=0",
+                        "--isaithalam.plays.flush-interval-ms=3600000",
+                        "--isaithalam.trending.refresh-ms=3600000",
+                        "--isaithalam.trending.global-refresh-ms=3600000");
+
+        CatalogueDataset dataset = CatalogueDataset.fromDataSql();
+        List<CatalogueDataset.Row> rows = dataset.generate(songs);
+        CatalogueDataset.insert(context.getBean(CatalogueImporter.class), rows);
+        // The importer leaves the indexes to its caller, so rebuild them the way startup does
+        context.getBean(CatalogueIndexLoader.class).load();
+        return new BenchmarkApp(context, dataset, rows);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    List<String> queries(int count) {
+        return dataset.queries(rows, count);
+    }
+
+    // Ids of all songs, data.sql seeds included
+    List<Long> songIds() {
+        return bean(JdbcTemplate.class).queryForList("SELECT id FROM songs ORDER BY id", Long.class);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,147 @@
+package com.isaithalam.bench;
+
+import com.isaithalam.importer.CatalogueImporter;
+import com.isaithalam.model.Song;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Synthetic catalogues of any size grown from the songs in data.sql. Titles, albums and
+// artists mix the seed vocabulary (common terms with long posting lists) with generated
+// words (rare terms), so searches see a realistic spread of match counts. Generation is
+// seeded, so a given size always produces the same rows and the same queries.
+final class CatalogueDataset {
+
+    record Row(String title, String artist, String album, String genre, int duration, long plays) {}
+
+    private static final Pattern SEED_ROW = Pattern.compile(
+            "\\((?:\\d+, )?'((?:[^']|'')*)', '((?:[^']|'')*)', '((?:[^']|'')*)', '((?:[^']|'')*)', (\\d+),");
+    private static final String[] SYLLABLES = {
+            "ra", "vi", "ka", "ma", "an", "ir", "ud", "sha", "ja", "ya", "ni", "de", "va", "lu", "po", "ten", "sri", "ga"
+    };
+
+    private final List<Row> seeds;
+    private final List<String> vocabulary;
+
+    private CatalogueDataset(List<Row> seeds) {
+        this.seeds = seeds;
+        Set<String> words = new LinkedHashSet<>();
+        for (Row seed : seeds) {
+            for (String text : new String[] {seed.title(), seed.album()}) {
+                for (String word : text.split("\\s+")) {
+                    if (word.length() > 2) {
+                        words.add(word);
+                    }
+                }
+            }
+        }
+        this.vocabulary = new ArrayList<>(words);
+    }
+
+    static CatalogueDataset fromDataSql() throws IOException {
+        String sql;
+        try (InputStream in = CatalogueDataset.class.getResourceAsStream("/data.sql")) {
+            if (in == null) {
+                throw new IllegalStateException("data.sql not on the classpath");
+            }
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<Row> seeds = new ArrayList<>();
+        Matcher m = SEED_ROW.matcher(sql);
+        while (m.find()) {
+            seeds.add(new Row(unquote(m.group(1)), unquote(m.group(2)), unquote(m.group(3)), unquote(m.group(4)),
+                    Integer.parseInt(m.group(5)), 0));
+        }
+        if (seeds.isEmpty()) {
+            throw new IllegalStateException("No song rows found in data.sql");
+        }
+        return new CatalogueDataset(seeds);
+    }
+
+    List<Row> generate(int size) {
+        Random random = new Random(size);
+        List<Row> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Row seed = seeds.get(i % seeds.size());
+            String title = word(random) + " " + pseudoWord(random);
+            String artist = random.nextInt(4) == 0
+                    ? seed.artist()
+                    : capitalize(pseudoWord(random)) + " " + capitalize(pseudoWord(random));
+            String album = word(random) + " " + capitalize(pseudoWord(random));
+            // Heavy-tailed play counts, like a real catalogue
+            long plays = (long) (1_000_000 * Math.pow(random.nextDouble(), 6));
+            rows.add(new Row(title, artist, album, seed.genre(), 120 + random.nextInt(240), plays));
+        }
+        return rows;
+    }
+
+    // A third each of common single words, rare-word prefixes and two-term queries
+    List<String> queries(List<Row> rows, int count) {
+        Random random = new Random(31L * rows.size() + count);
+        List<String> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Row row = rows.get(random.nextInt(rows.size()));
+            String[] title = row.title().toLowerCase(Locale.ROOT).split(" ");
+            String rare = title[1].substring(0, Math.min(4, title[1].length()));
+            switch (i % 3) {
+                case 0 -> queries.add(title[0]);
+                case 1 -> queries.add(rare);
+                default -> queries.add(title[0] + " " + rare);
+            }
+        }
+        return queries;
+    }
+
+    // Through the bulk import path, the way large catalogues are loaded in production
+    static void insert(CatalogueImporter importer, List<Row> rows) {
+        int chunkSize = 5000;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<Song> chunk = new ArrayList<>(chunkSize);
+            for (int i = from; i < Math.min(rows.size(), from + chunkSize); i++) {
+                Row row = rows.get(i);
+                Song song = new Song();
+                song.setExternalId("bench-" + i);
+                song.setTitle(row.title());
+                song.setArtistName(row.artist());
+                song.setAlbumName(row.album());
+                song.setGenre(row.genre());
+                song.setDuration(row.duration());
+                song.setAudioUrl("https://example.invalid/audio.mp3");
+                song.setCoverImageUrl("/images/covers/cover1.svg");
+                song.setPlays(row.plays());
+                chunk.add(song);
+            }
+            importer.write(Song.CATALOGUE_SOURCE, chunk);
+        }
+    }
+
+    private String word(Random random) {
+        return vocabulary.get(random.nextInt(vocabulary.size()));
+    }
+
+    private static String pseudoWord(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int s = 0; s < syllables; s++) {
+            sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static String unquote(String sqlString) {
+        return sqlString.replace("''", "'");
+    }
+}
@@ -0,0 +1,80 @@
+package com.isaithalam.bench;
+
+import com.isaithalam.dto.Suggestion;
+import com.isaithalam.model.Song;
+import com.isaithalam.repository.SongRepository;
+import com.isaithalam.search.SongSearchIndex;
+import com.isaithalam.search.SuggestionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Local catalogue search at 10k/100k/1M songs: the in-memory inverted index, the
+// autocomplete trie and the SQL LIKE scan it replaced (still used until the index is
+// ready). Queries cycle through a fixed, seeded mix. Pick a size with -p songs=100000.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class CatalogueSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int songs;
+
+    private BenchmarkApp app;
+    private SongSearchIndex searchIndex;
+    private SuggestionIndex suggestionIndex;
+    private SongRepository songRepository;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        app = BenchmarkApp.start(songs);
+        searchIndex = app.bean(SongSearchIndex.class);
+        suggestionIndex = app.bean(SuggestionIndex.class);
+        songRepository = app.bean(SongRepository.class);
+        queries = app.queries(1024).toArray(new String[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    private String nextQuery() {
+        String query = queries[next];
+        next = (next + 1) & (queries.length - 1);
+        return query;
+    }
+
+    @Benchmark
+    public List<Long> indexSearch() {
+        return searchIndex.search(nextQuery(), 50);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggest() {
+        String query = nextQuery();
+        return suggestionIndex.suggest(query.substring(0, Math.min(3, query.length())), SuggestionIndex.TOP_K);
+    }
+
+    @Benchmark
+    public List<Song> repositoryLikeSearch() {
+        return songRepository.search(nextQuery());
+    }
+}
@@ -0,0 +1,76 @@
+package com.isaithalam.bench;
+
+import com.isaithalam.service.PlayCounterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Play counting through PlayCounterService: the per-request path (striped counter plus
+// trending listener) single- and multi-threaded, and the write-behind flush that turns
+// a burst of plays into one JDBC batch. Plays are spread uniformly over the catalogue.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class PlayCountBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int songs;
+
+    private BenchmarkApp app;
+    private PlayCounterService playCounter;
+    private long[] ids;
+
+    @Setup
+    public void setup() throws Exception {
+        app = BenchmarkApp.start(songs);
+        playCounter = app.bean(PlayCounterService.class);
+        List<Long> songIds = app.songIds();
+        ids = songIds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    private Long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public Long recordPlay() {
+        return playCounter.recordPlay(randomId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Long recordPlayContended() {
+        return playCounter.recordPlay(randomId());
+    }
+
+    // Per operation: 1000 plays, then the flush that persists them
+    @Benchmark
+    public void recordThousandThenFlush() {
+        for (int i = 0; i < 1000; i++) {
+            playCounter.recordPlay(randomId());
+        }
+        playCounter.flush();
+    }
+}
@@ -0,0 +1,106 @@
+package com.isaithalam.bench;
+
+import com.isaithalam.dto.PlaylistSummary;
+import com.isaithalam.model.Song;
+import com.isaithalam.service.PlaylistService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PlaylistService edits and reads against a large catalogue. One playlist holds
+// playlistSize songs; each edit benchmark adds a song and removes it again, so the
+// playlist is the same size on every invocation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class PlaylistBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int songs;
+
+    @Param({"1000"})
+    public int playlistSize;
+
+    private BenchmarkApp app;
+    private PlaylistService playlistService;
+    private Long playlistId;
+    private Long[] outsiders;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        app = BenchmarkApp.start(songs);
+        playlistService = app.bean(PlaylistService.class);
+        playlistId = playlistService.createPlaylist("Benchmark", "Generated", 1L).getId();
+
+        List<Long> ids = app.songIds();
+        List<Object[]> entries = new ArrayList<>(playlistSize);
+        for (int i = 0; i < playlistSize; i++) {
+            entries.add(new Object[] {playlistId, ids.get(i), (i + 1) * PlaylistService.POSITION_GAP});
+        }
+        app.bean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO playlist_songs (playlist_id, song_id, position) VALUES (?, ?, ?)", entries);
+        // Songs from the far end of the catalogue, never in the playlist
+        outsiders = ids.subList(ids.size() - 256, ids.size()).toArray(new Long[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    private Long nextOutsider() {
+        Long id = outsiders[next];
+        next = (next + 1) % outsiders.length;
+        return id;
+    }
+
+    @Benchmark
+    public PlaylistSummary appendThenRemove() {
+        Long songId = nextOutsider();
+        playlistService.addSongToPlaylist(playlistId, songId, null);
+        return playlistService.removeSongFromPlaylist(playlistId, songId);
+    }
+
+    @Benchmark
+    public PlaylistSummary insertAtHeadThenRemove() {
+        Long songId = nextOutsider();
+        playlistService.addSongToPlaylist(playlistId, songId, 0);
+        return playlistService.removeSongFromPlaylist(playlistId, songId);
+    }
+
+    @Benchmark
+    public PlaylistSummary insertMidThenRemove() {
+        Long songId = nextOutsider();
+        playlistService.addSongToPlaylist(playlistId, songId, playlistSize / 2);
+        return playlistService.removeSongFromPlaylist(playlistId, songId);
+    }
+
+    @Benchmark
+    public Page<Song> firstPage() {
+        return playlistService.getPlaylistSongs(playlistId, 0, 50);
+    }
+
+    @Benchmark
+    public List<PlaylistSummary> allSummaries() {
+        return playlistService.getAllPlaylists();
+    }
+}
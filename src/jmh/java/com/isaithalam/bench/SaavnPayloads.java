@@ -0,0 +1,85 @@
+package com.isaithalam.bench;
+
+import java.nio.charset.StandardCharsets;
+
+// Synthetic upstream responses shaped like the saavn.me and iTunes payloads the app
+// receives, so mapping benchmarks run offline and reproducibly.
+final class SaavnPayloads {
+
+    private SaavnPayloads() {}
+
+    static byte[] saavnSearch(int results) {
+        StringBuilder sb = new StringBuilder(results * 2048);
+        sb.append("{\"success\":true,\"data\":{\"total\":").append(results * 10)
+                .append(",\"start\":1,\"results\":[");
+        for (int i = 0; i < results; i++) {
+            if (i > 0) sb.append(',');
+            String id = "sv" + Integer.toString(i * 7919, 36);
+            sb.append("{\"id\":\"").append(id).append("\",")
+                    .append("\"name\":\"Track ").append(i).append(" (From \\\"Film ").append(i % 40).append("\\\")\",")
+                    .append("\"type\":\"song\",\"year\":\"").append(2000 + i % 25).append("\",")
+                    .append("\"releaseDate\":null,\"duration\":").append(120 + i % 240).append(',')
+                    .append("\"label\":\"Label ").append(i % 12).append("\",\"explicitContent\":false,")
+                    .append("\"playCount\":").append(10000 + i).append(",\"language\":\"tamil\",\"hasLyrics\":false,")
+                    .append("\"lyricsId\":null,\"url\":\"https://www.jiosaavn.com/song/track-").append(i).append("/").append(id).append("\",")
+                    .append("\"copyright\":\"(C) ").append(2000 + i % 25).append(" Label ").append(i % 12).append("\",")
+                    .append("\"album\":{\"id\":\"al").append(i % 300).append("\",\"name\":\"Album ").append(i % 300)
+                    .append("\",\"url\":\"https://www.jiosaavn.com/album/album-").append(i % 300).append("\"},")
+                    .append("\"artists\":{\"primary\":[");
+            for (int a = 0; a < 2; a++) {
+                if (a > 0) sb.append(',');
+                artist(sb, i * 2 + a, "primary_artists");
+            }
+            sb.append("],\"featured\":[],\"all\":[");
+            for (int a = 0; a < 3; a++) {
+                if (a > 0) sb.append(',');
+                artist(sb, i * 3 + a, a == 2 ? "music" : "singer");
+            }
+            sb.append("]},\"image\":[");
+            images(sb, "https://c.saavncdn.com/" + i % 999 + "/Album-" + i % 300, new String[] {"50x50", "150x150", "500x500"}, ".jpg");
+            sb.append("],\"downloadUrl\":[");
+            images(sb, "https://aac.saavncdn.com/" + i % 999 + "/" + id, new String[] {"12kbps", "48kbps", "96kbps", "160kbps", "320kbps"}, ".mp4");
+            sb.append("]}");
+        }
+        sb.append("]}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] itunesSearch(int results) {
+        StringBuilder sb = new StringBuilder(results * 1536);
+        sb.append("{\"resultCount\":").append(results).append(",\"results\":[");
+        for (int i = 0; i < results; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"wrapperType\":\"track\",\"kind\":\"song\",")
+                    .append("\"artistId\":").append(100000 + i % 500).append(",\"collectionId\":").append(200000 + i % 300).append(',')
+                    .append("\"trackId\":").append(1000000000L + i).append(',')
+                    .append("\"artistName\":\"Artist ").append(i % 500).append("\",")
+                    .append("\"collectionName\":\"Album ").append(i % 300).append("\",")
+                    .append("\"trackName\":\"Track ").append(i).append("\",")
+                    .append("\"previewUrl\":\"https://audio-ssl.itunes.apple.com/itunes-assets/AudioPreview/").append(i).append(".m4a\",")
+                    .append("\"artworkUrl30\":\"https://is1-ssl.mzstatic.com/image/").append(i).append("/30x30bb.jpg\",")
+                    .append("\"artworkUrl60\":\"https://is1-ssl.mzstatic.com/image/").append(i).append("/60x60bb.jpg\",")
+                    .append("\"artworkUrl100\":\"https://is1-ssl.mzstatic.com/image/").append(i).append("/100x100bb.jpg\",")
+                    .append("\"collectionPrice\":9.99,\"trackPrice\":1.29,\"releaseDate\":\"2021-06-25T12:00:00Z\",")
+                    .append("\"trackTimeMillis\":").append((120 + i % 240) * 1000).append(',')
+                    .append("\"country\":\"IND\",\"currency\":\"INR\",\"primaryGenreName\":\"Tamil\",\"isStreamable\":true}");
+        }
+        sb.append("]}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void artist(StringBuilder sb, int n, String role) {
+        sb.append("{\"id\":\"ar").append(n % 800).append("\",\"name\":\"Artist ").append(n % 800)
+                .append("\",\"role\":\"").append(role).append("\",\"type\":\"artist\",\"image\":[");
+        images(sb, "https://c.saavncdn.com/artists/Artist_" + n % 800, new String[] {"50x50", "150x150", "500x500"}, ".jpg");
+        sb.append("],\"url\":\"https://www.jiosaavn.com/artist/artist-").append(n % 800).append("\"}");
+    }
+
+    private static void images(StringBuilder sb, String base, String[] qualities, String ext) {
+        for (int q = 0; q < qualities.length; q++) {
+            if (q > 0) sb.append(',');
+            sb.append("{\"quality\":\"").append(qualities[q]).append("\",\"url\":\"")
+                    .append(base).append('_').append(qualities[q]).append(ext).append("\"}");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.isaithalam.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isaithalam.dto.PlaylistSummary;
+import com.isaithalam.dto.TrendingEntry;
+import com.isaithalam.model.Song;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response bodies as the controllers write them: song lists (search, playlist pages),
+// trending leaderboards and playlist summaries, through an ObjectMapper configured the
+// way Spring MVC configures its message converter.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "50", "200"})
+    public int results;
+
+    private ObjectMapper objectMapper;
+    private List<Song> songs;
+    private List<TrendingEntry> leaderboard;
+    private List<PlaylistSummary> summaries;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<CatalogueDataset.Row> rows = CatalogueDataset.fromDataSql().generate(results);
+        songs = new ArrayList<>(results);
+        leaderboard = new ArrayList<>(results);
+        summaries = new ArrayList<>(results);
+        long id = 1;
+        for (CatalogueDataset.Row row : rows) {
+            Song song = new Song();
+            song.setId(id);
+            song.setTitle(row.title());
+            song.setArtistName(row.artist());
+            song.setAlbumName(row.album());
+            song.setGenre(row.genre());
+            song.setDuration(row.duration());
+            song.setAudioUrl("https://www.soundhelix.com/examples/mp3/SoundHelix-Song-" + id % 16 + ".mp3");
+            song.setCoverImageUrl("/images/covers/cover" + id % 8 + ".svg");
+            song.setPlays(row.plays());
+            songs.add(song);
+            leaderboard.add(new TrendingEntry((int) id, row.plays() % 5000, song));
+            summaries.add(new PlaylistSummary(id, row.album(), "Generated playlist", "/images/playlist-default.svg",
+                    1L, id * 7, id));
+            id++;
+        }
+    }
+
+    @Benchmark
+    public byte[] songList() throws Exception {
+        return objectMapper.writeValueAsBytes(songs);
+    }
+
+    @Benchmark
+    public byte[] trendingLeaderboard() throws Exception {
+        return objectMapper.writeValueAsBytes(leaderboard);
+    }
+
+    @Benchmark
+    public byte[] playlistSummaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
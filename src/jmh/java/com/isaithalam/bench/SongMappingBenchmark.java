@@ -0,0 +1,173 @@
+package com.isaithalam.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isaithalam.model.Song;
+import com.isaithalam.provider.SongJsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Streaming (SongJsonReader) vs. JsonNode tree mapping of upstream search pages.
+// Run with -Djmh.args="SongMappingBenchmark -prof gc" to compare allocation rates.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SongMappingBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int results;
+
+    private ObjectMapper objectMapper;
+    private SongJsonReader reader;
+    private byte[] saavnPayload;
+    private byte[] itunesPayload;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        reader = new SongJsonReader(objectMapper);
+        saavnPayload = SaavnPayloads.saavnSearch(results);
+        itunesPayload = SaavnPayloads.itunesSearch(results);
+    }
+
+    @Benchmark
+    public List<Song> saavnStreaming() throws IOException {
+        return reader.readSaavnResults(new ByteArrayInputStream(saavnPayload));
+    }
+
+    @Benchmark
+    public List<Song> saavnTree() throws IOException {
+        return TreeMapping.saavn(objectMapper.readTree(new ByteArrayInputStream(saavnPayload)));
+    }
+
+    @Benchmark
+    public List<Song> itunesStreaming() throws IOException {
+        return reader.readItunesResults(new ByteArrayInputStream(itunesPayload));
+    }
+
+    @Benchmark
+    public List<Song> itunesTree() throws IOException {
+        // The previous iTunes path decoded the body to a String before parsing it
+        String body = new String(itunesPayload, StandardCharsets.UTF_8);
+        return TreeMapping.itunes(objectMapper.readTree(body));
+    }
+
+    // The tree-based mapping MusicApiService used before responses were streamed
+    static final class TreeMapping {
+
+        static List<Song> saavn(JsonNode response) {
+            List<Song> songs = new ArrayList<>();
+            if (response != null && response.has("data") && response.get("data").has("results")) {
+                for (JsonNode item : response.get("data").get("results")) {
+                    songs.add(mapToSong(item));
+                }
+            }
+            return songs;
+        }
+
+        static List<Song> itunes(JsonNode response) {
+            List<Song> songs = new ArrayList<>();
+            if (response != null && response.has("results")) {
+                for (JsonNode item : response.get("results")) {
+                    Song song = new Song();
+                    song.setExternalId(String.valueOf(item.get("trackId").asLong()));
+                    song.setId(item.get("trackId").asLong());
+                    song.setTitle(item.path("trackName").asText() + " (Preview)");
+                    song.setArtistName(item.path("artistName").asText());
+                    song.setAlbumName(item.path("collectionName").asText());
+                    song.setDuration(item.path("trackTimeMillis").asInt() / 1000);
+                    song.setCoverImageUrl(item.path("artworkUrl100").asText().replace("100x100", "600x600"));
+                    song.setAudioUrl(item.path("previewUrl").asText());
+                    song.setGenre(item.path("primaryGenreName").asText());
+                    song.setPlays(1000 + (long) (Math.random() * 10000));
+                    songs.add(song);
+                }
+            }
+            return songs;
+        }
+
+        static Song mapToSong(JsonNode item) {
+            Song song = new Song();
+            String idStr = item.has("id") ? item.get("id").asText() : "";
+            song.setExternalId(idStr);
+            song.setId((long) idStr.hashCode());
+            song.setTitle(getString(item, "name"));
+
+            if (item.has("primaryArtists")) {
+                song.setArtistName(getString(item, "primaryArtists"));
+            } else if (item.has("artists")) {
+                JsonNode artists = item.get("artists");
+                if (artists.has("primary") && artists.get("primary").isArray() && artists.get("primary").size() > 0) {
+                    song.setArtistName(getString(artists.get("primary").get(0), "name"));
+                } else {
+                    song.setArtistName("Unknown Artist");
+                }
+            } else {
+                song.setArtistName("Unknown Artist");
+            }
+
+            song.setAlbumName(getString(item, "album"));
+            if (item.has("album") && item.get("album").isObject() && item.get("album").has("name")) {
+                song.setAlbumName(item.get("album").get("name").asText());
+            }
+
+            song.setDuration(item.has("duration") ? item.get("duration").asInt() : 0);
+
+            song.setCoverImageUrl("");
+            if (item.has("image")) {
+                JsonNode imageNode = item.get("image");
+                if (imageNode.isArray() && imageNode.size() > 0) {
+                    JsonNode img = imageNode.get(imageNode.size() - 1);
+                    if (img.has("url")) song.setCoverImageUrl(img.get("url").asText());
+                    else if (img.has("link")) song.setCoverImageUrl(img.get("link").asText());
+                    else if (img.isTextual()) song.setCoverImageUrl(img.asText());
+                } else if (imageNode.isTextual()) {
+                    song.setCoverImageUrl(imageNode.asText());
+                }
+            }
+
+            song.setAudioUrl("");
+            if (item.has("downloadUrl") && item.get("downloadUrl").isArray()) {
+                JsonNode urls = item.get("downloadUrl");
+                if (urls.size() > 0) {
+                    JsonNode download = urls.get(urls.size() - 1);
+                    if (download.has("url")) song.setAudioUrl(download.get("url").asText());
+                    else if (download.has("link")) song.setAudioUrl(download.get("link").asText());
+                    else if (download.isTextual()) song.setAudioUrl(download.asText());
+                }
+            } else if (item.has("url")) {
+                String url = item.get("url").asText();
+                if (url.endsWith(".mp3") || url.endsWith(".m4a")) {
+                    song.setAudioUrl(url);
+                }
+            }
+
+            song.setGenre("Global");
+            song.setPlays(1000 + (long) (Math.random() * 50000));
+            return song;
+        }
+
+        private static String getString(JsonNode node, String key) {
+            return node.has(key) ? node.get(key).asText() : "";
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.isaithalam.loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// GC and allocation accounting for the load-test JVM, which hosts the app, the load
+// generator and the upstream simulators together.
+// - Heap allocation is derived from GC notifications: whatever was in use before a pause
+//   minus what survived the previous one. This covers every thread, virtual ones included.
+// - The harness's own share is measured per thread (load generator, HTTP client,
+//   simulators) and subtracted, leaving an estimate for the application.
+final class JvmStats implements AutoCloseable {
+
+    record Snapshot(long gcCount, long gcMillis, long allocatedBytes, long harnessBytes) {
+        Snapshot minus(Snapshot start) {
+            return new Snapshot(gcCount - start.gcCount, gcMillis - start.gcMillis,
+                    allocatedBytes - start.allocatedBytes, harnessBytes - start.harnessBytes);
+        }
+
+        long appBytes() {
+            return Math.max(0, allocatedBytes - harnessBytes);
+        }
+    }
+
+    private static final String[] HARNESS_THREADS = {"loadgen", "HttpClient", "upstream-sim", "main", "harness-"};
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final NotificationListener listener = (notification, handback) -> {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            onGc(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+        }
+    };
+
+    // Guarded by this
+    private long allocatedBeforeLastGc;
+    private long usedAfterLastGc;
+    // Last sampled allocation per harness thread; dead threads keep their final sample
+    private final Map<Long, Long> harnessThreadBytes = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> isHarness = new ConcurrentHashMap<>();
+    private final Thread sampler;
+    private volatile boolean running = true;
+
+    JvmStats() {
+        usedAfterLastGc = heapUsed();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+        }
+        sampler = new Thread(() -> {
+            while (running) {
+                sampleHarnessThreads();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "harness-alloc-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    Snapshot snapshot() {
+        sampleHarnessThreads();
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (isPause(gc.getName())) {
+                count += Math.max(0, gc.getCollectionCount());
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+        }
+        long allocated;
+        synchronized (this) {
+            allocated = allocatedBeforeLastGc + Math.max(0, heapUsed() - usedAfterLastGc);
+        }
+        long harness = 0;
+        for (long bytes : harnessThreadBytes.values()) {
+            harness += bytes;
+        }
+        return new Snapshot(count, millis, allocated, harness);
+    }
+
+    private synchronized void onGc(GarbageCollectionNotificationInfo info) {
+        // Concurrent cycles (e.g. "G1 Concurrent GC") reclaim old regions without a pause;
+        // their before/after figures say nothing about allocation
+        if (!isPause(info.getGcName())) {
+            return;
+        }
+        GcInfo gc = info.getGcInfo();
+        long before = total(gc.getMemoryUsageBeforeGc());
+        long after = total(gc.getMemoryUsageAfterGc());
+        allocatedBeforeLastGc += Math.max(0, before - usedAfterLastGc);
+        usedAfterLastGc = after;
+    }
+
+    private void sampleHarnessThreads() {
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            long id = ids[i];
+            Boolean harness = isHarness.get(id);
+            if (harness == null) {
+                ThreadInfo info = threads.getThreadInfo(id);
+                harness = info != null && isHarnessThread(info.getThreadName());
+                isHarness.put(id, harness);
+            }
+            if (harness && bytes[i] > 0) {
+                harnessThreadBytes.put(id, bytes[i]);
+            }
+        }
+    }
+
+    private static boolean isHarnessThread(String name) {
+        for (String prefix : HARNESS_THREADS) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPause(String gcName) {
+        return !gcName.contains("Concurrent") || gcName.contains("Pauses");
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long total(Map<String, MemoryUsage> pools) {
+        long used = 0;
+        Map<String, MemoryUsage> heapPools = new HashMap<>(pools);
+        // Non-heap pools (metaspace, code cache) are reported too; only heap counts
+        heapPools.keySet().removeIf(name -> name.contains("Metaspace") || name.contains("CodeHeap")
+                || name.contains("Code Cache") || name.contains("Compressed Class"));
+        for (MemoryUsage usage : heapPools.values()) {
+            used += usage.getUsed();
+        }
+        return used;
+    }
+
+    @Override
+    public void close() throws Exception {
+        running = false;
+        sampler.interrupt();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).removeNotificationListener(listener);
+        }
+    }
+}
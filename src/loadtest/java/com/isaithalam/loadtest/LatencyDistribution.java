@@ -0,0 +1,58 @@
+package com.isaithalam.loadtest;
+
+import java.util.Random;
+
+// Simulated upstream response times, parsed from "fixed:50", "uniform:20:80" or
+// "lognormal:60:400" (median and p99 in ms; the usual long-tailed shape of real APIs)
+final class LatencyDistribution {
+    private final String spec;
+    private final double a;
+    private final double b;
+    private final char kind;
+
+    private LatencyDistribution(String spec, char kind, double a, double b) {
+        this.spec = spec;
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return new LatencyDistribution(spec, 'f', Double.parseDouble(parts[1]), 0);
+                case "uniform":
+                    return new LatencyDistribution(spec, 'u', Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal": {
+                    double median = Double.parseDouble(parts[1]);
+                    double p99 = Double.parseDouble(parts[2]);
+                    // p99 sits 2.326 standard deviations above the median in log space
+                    double sigma = Math.log(p99 / median) / 2.326;
+                    return new LatencyDistribution(spec, 'l', Math.log(median), sigma);
+                }
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Bad latency spec '" + spec
+                + "', expected fixed:MS, uniform:MIN:MAX or lognormal:MEDIAN:P99");
+    }
+
+    long sampleMillis(Random random) {
+        double ms = switch (kind) {
+            case 'f' -> a;
+            case 'u' -> a + random.nextDouble() * (b - a);
+            default -> Math.exp(a + b * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(ms));
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
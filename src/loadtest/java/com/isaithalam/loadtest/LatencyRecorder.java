@@ -0,0 +1,62 @@
+package com.isaithalam.loadtest;
+
+import java.util.Arrays;
+
+// Every latency of one operation in one step, kept exactly (a step is at most a few
+// hundred thousand requests) so percentiles are computed, not estimated
+final class LatencyRecorder {
+    private long[] micros = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long latencyMicros, boolean ok) {
+        if (count == micros.length) {
+            micros = Arrays.copyOf(micros, count * 2);
+        }
+        micros[count++] = latencyMicros;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize() {
+        long[] sorted = Arrays.copyOf(micros, count);
+        Arrays.sort(sorted);
+        return new Summary(sorted, errors);
+    }
+
+    record Summary(long[] sorted, long errors) {
+        int count() {
+            return sorted.length;
+        }
+
+        double percentileMillis(double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1000.0;
+        }
+
+        double maxMillis() {
+            return sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000.0;
+        }
+
+        static Summary merge(Iterable<Summary> parts) {
+            int total = 0;
+            long errors = 0;
+            for (Summary s : parts) {
+                total += s.count();
+                errors += s.errors();
+            }
+            long[] all = new long[total];
+            int at = 0;
+            for (Summary s : parts) {
+                System.arraycopy(s.sorted(), 0, all, at, s.count());
+                at += s.count();
+            }
+            Arrays.sort(all);
+            return new Summary(all, errors);
+        }
+    }
+}
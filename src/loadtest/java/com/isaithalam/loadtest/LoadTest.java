@@ -0,0 +1,314 @@
+package com.isaithalam.loadtest;
+
+import com.isaithalam.IsaiThalamApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// End-to-end load test: boots the application in this JVM against two local upstream
+// simulators (Saavn and iTunes on their own ports) and drives an open-loop request mix at
+// stepped rates, one fresh application per execution variant.
+//
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--rates=50,100,200 --upstream-latency=lognormal:60:400"
+//
+// Options (all --key=value):
+//   --rates=25,50,100,200        requests/sec per step; stepping stops once p99 breaks the SLO
+//   --step-seconds=30 --warmup-seconds=10
+//   --mix=search:50,trending:20,play:20,playlist:10
+//   --distinct-queries=500       Zipf-distributed search queries
+//   --upstream-latency=lognormal:60:400   or --saavn-latency / --itunes-latency separately
+//   --upstream-error-rate=0      share of upstream calls answered with 503
+//   --slo-p99-ms=500
+//   --variants=blocking,reactive,virtual  (virtual needs Java 21 and is skipped otherwise)
+//   --max-in-flight=2000         requests beyond this are counted as dropped, not queued
+//   --app=--some.property=value  extra application argument, may be repeated
+//   --report=target/loadtest/report.csv
+//
+// Latency is measured from each request's scheduled send time, so a stalled server shows
+// up as queueing delay instead of silently lowering the offered rate.
+public final class LoadTest {
+
+    private static final String DEFAULT_MIX = "search:50,trending:20,play:20,playlist:10";
+    private static final int SEEDED_SONGS = 16;
+    private static final int SEEDED_PLAYLISTS = 3;
+    private static final Pattern PLAYLIST_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final Map<String, String> options;
+    private final List<String> appArgs;
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration requestTimeout;
+
+    private LoadTest(Map<String, String> options, List<String> appArgs) {
+        this.options = options;
+        this.appArgs = appArgs;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(intOption("client-threads", 8), r -> {
+            Thread t = new Thread(r, "loadgen-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.requestTimeout = Duration.ofMillis(intOption("request-timeout-ms", 10000));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Ignoring argument '" + arg + "', expected --key=value");
+                continue;
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (key.equals("app")) {
+                appArgs.add(value);
+            } else {
+                options.put(key, value);
+            }
+        }
+        // Devtools would otherwise restart the app by re-invoking this main method with the app's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new LoadTest(options, appArgs).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        String upstream = option("upstream-latency", "lognormal:60:400");
+        double errorRate = Double.parseDouble(option("upstream-error-rate", "0"));
+        String mix = option("mix", DEFAULT_MIX);
+        Workload.parseMix(mix);
+        double sloMillis = Double.parseDouble(option("slo-p99-ms", "500"));
+        List<Integer> rates = new ArrayList<>();
+        for (String rate : option("rates", "25,50,100,200").split(",")) {
+            rates.add(Integer.parseInt(rate.trim()));
+        }
+        Path report = Path.of(option("report", "target/loadtest/report.csv"));
+        Files.createDirectories(report.toAbsolutePath().getParent());
+
+        Map<String, Integer> maxSustained = new LinkedHashMap<>();
+        try (UpstreamSimulator saavn = new UpstreamSimulator("saavn",
+                     LatencyDistribution.parse(option("saavn-latency", upstream)), errorRate);
+             UpstreamSimulator itunes = new UpstreamSimulator("itunes",
+                     LatencyDistribution.parse(option("itunes-latency", upstream)), errorRate);
+             JvmStats jvm = new JvmStats();
+             PrintWriter csv = new PrintWriter(Files.newBufferedWriter(report))) {
+            System.out.println("Upstreams: " + saavn + ", " + itunes);
+            csv.println("variant,rate,operation,requests,errors,dropped,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,"
+                    + "gc_count,gc_ms,app_alloc_mb,app_alloc_kb_per_request");
+
+            for (String variant : option("variants", "blocking,reactive").split(",")) {
+                variant = variant.trim();
+                if (variant.equals("virtual") && Runtime.version().feature() < 21) {
+                    System.out.println("Skipping variant virtual: needs Java 21, running on " + Runtime.version());
+                    continue;
+                }
+                maxSustained.put(variant, runVariant(variant, mix, rates, sloMillis, saavn, itunes, jvm, csv));
+            }
+            System.out.println();
+            System.out.println("Upstream traffic: saavn " + saavn.stats() + ", itunes " + itunes.stats());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Max sustained rate with p99 <= %.0f ms:%n", sloMillis);
+        maxSustained.forEach((variant, rate) ->
+                System.out.printf(Locale.ROOT, "  %-9s %s%n", variant, rate > 0 ? rate + " req/s" : "none of the tested rates"));
+        System.out.println("Report: " + report.toAbsolutePath());
+    }
+
+    private int runVariant(String variant, String mix, List<Integer> rates, double sloMillis,
+                           UpstreamSimulator saavn, UpstreamSimulator itunes, JvmStats jvm,
+                           PrintWriter csv) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + variant + "-" + System.nanoTime(),
+                "--isaithalam.provider.source=live",
+                "--isaithalam.provider.saavn.base-url=" + saavn.baseUrl(),
+                "--isaithalam.provider.itunes.base-url=" + itunes.baseUrl(),
+                "--isaithalam.media.cache-dir=target/loadtest/media"));
+        switch (variant) {
+            case "blocking" -> args.add("--isaithalam.execution.mode=blocking");
+            case "reactive" -> args.add("--isaithalam.execution.mode=reactive");
+            case "virtual" -> args.add("--spring.profiles.active=virtual");
+            default -> throw new IllegalArgumentException("Unknown variant '" + variant + "', expected blocking, reactive or virtual");
+        }
+        // Passed as arguments so they override application.properties; user extras go last and win
+        args.addAll(appArgs);
+
+        System.out.println();
+        System.out.println("=== " + variant + " ===");
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(IsaiThalamApplication.class)
+                .run(args.toArray(new String[0]))) {
+            String baseUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port");
+            long writePlaylist = createPlaylist(baseUrl, "loadtest-" + variant);
+            Workload workload = new Workload(baseUrl, mix, intOption("distinct-queries", 500),
+                    SEEDED_SONGS, SEEDED_PLAYLISTS, writePlaylist, requestTimeout);
+
+            int warmup = intOption("warmup-seconds", 10);
+            if (warmup > 0) {
+                System.out.println("Warming up for " + warmup + "s at " + rates.get(0) + " req/s");
+                drive(workload, rates.get(0), warmup);
+            }
+
+            System.out.printf(Locale.ROOT, "%-9s %6s %8s %6s %7s %8s %8s %8s %8s %8s %5s %7s %9s %9s%n",
+                    "op", "rate", "requests", "errors", "dropped", "req/s", "p50", "p90", "p99", "p99.9", "gc",
+                    "gc ms", "alloc MB", "KB/req");
+            int sustained = 0;
+            for (int rate : rates) {
+                JvmStats.Snapshot before = jvm.snapshot();
+                Step step = drive(workload, rate, intOption("step-seconds", 30));
+                JvmStats.Snapshot gc = jvm.snapshot().minus(before);
+
+                LatencyRecorder.Summary all = LatencyRecorder.Summary.merge(step.summaries().values());
+                report(csv, variant, rate, "all", all, step, gc);
+                for (Map.Entry<String, LatencyRecorder.Summary> op : step.summaries().entrySet()) {
+                    report(csv, variant, rate, op.getKey(), op.getValue(), step, null);
+                }
+                csv.flush();
+
+                if (all.percentileMillis(99) > sloMillis || all.errors() + step.dropped() > all.count() / 100) {
+                    System.out.printf(Locale.ROOT, "SLO broken at %d req/s (p99 %.1f ms, %d errors, %d dropped), stopping%n",
+                            rate, all.percentileMillis(99), all.errors(), step.dropped());
+                    break;
+                }
+                sustained = rate;
+            }
+            return sustained;
+        }
+    }
+
+    record Step(Map<String, LatencyRecorder.Summary> summaries, long dropped, double seconds) {}
+
+    // Open-loop arrivals: requests are sent on a fixed schedule whether or not earlier ones
+    // have completed, up to max-in-flight; afterwards waits for stragglers to finish
+    private Step drive(Workload workload, int rate, int seconds) throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (String op : Workload.OPERATIONS) {
+            recorders.put(op, new LatencyRecorder());
+        }
+        int maxInFlight = intOption("max-in-flight", 2000);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong dropped = new AtomicLong();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            Workload.Request request = workload.next();
+            LatencyRecorder recorder = recorders.get(request.operation());
+            client.sendAsync(request.request(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long micros = (System.nanoTime() - scheduled) / 1000;
+                        recorder.record(micros, error == null && response.statusCode() < 400);
+                        inFlight.release();
+                    });
+        }
+        long sendSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        if (!inFlight.tryAcquire(maxInFlight, requestTimeout.toMillis() + 5000, TimeUnit.MILLISECONDS)) {
+            System.err.println("Requests still in flight after the drain timeout: "
+                    + (maxInFlight - inFlight.availablePermits()));
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        if (sendSeconds > seconds + 1) {
+            System.err.println("Load generator fell behind schedule; the offered rate was lower than " + rate + " req/s");
+        }
+
+        Map<String, LatencyRecorder.Summary> summaries = new LinkedHashMap<>();
+        recorders.forEach((op, recorder) -> {
+            LatencyRecorder.Summary summary = recorder.summarize();
+            if (summary.count() > 0) {
+                summaries.put(op, summary);
+            }
+        });
+        return new Step(summaries, dropped.get(), elapsed);
+    }
+
+    private static void report(PrintWriter csv, String variant, int rate, String op, LatencyRecorder.Summary s,
+                               Step step, JvmStats.Snapshot gc) {
+        boolean overall = gc != null;
+        long dropped = overall ? step.dropped() : 0;
+        double throughput = s.count() / step.seconds();
+        double allocMb = overall ? gc.appBytes() / (1024.0 * 1024.0) : 0;
+        double kbPerRequest = overall && s.count() > 0 ? gc.appBytes() / 1024.0 / s.count() : 0;
+        System.out.printf(Locale.ROOT, "%-9s %6d %8d %6d %7d %8.1f %8.1f %8.1f %8.1f %8.1f %5s %7s %9s %9s%n",
+                op, rate, s.count(), s.errors(), dropped, throughput,
+                s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99), s.percentileMillis(99.9),
+                overall ? gc.gcCount() : "", overall ? gc.gcMillis() : "",
+                overall ? String.format(Locale.ROOT, "%.1f", allocMb) : "",
+                overall ? String.format(Locale.ROOT, "%.1f", kbPerRequest) : "");
+        csv.printf(Locale.ROOT, "%s,%d,%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f,%s,%s,%s,%s%n",
+                variant, rate, op, s.count(), s.errors(), dropped, throughput,
+                s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99), s.percentileMillis(99.9),
+                s.maxMillis(),
+                overall ? gc.gcCount() : "", overall ? gc.gcMillis() : "",
+                overall ? String.format(Locale.ROOT, "%.1f", allocMb) : "",
+                overall ? String.format(Locale.ROOT, "%.2f", kbPerRequest) : "");
+    }
+
+    private long createPlaylist(String baseUrl, String name) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/playlists"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"" + name + "\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Could not create playlist: HTTP " + response.statusCode() + " " + response.body());
+        }
+        Matcher id = PLAYLIST_ID.matcher(response.body());
+        if (!id.find()) {
+            throw new IllegalStateException("No playlist id in " + response.body());
+        }
+        return Long.parseLong(id.group(1));
+    }
+
+    private String option(String key, String defaultValue) {
+        return options.getOrDefault(key, defaultValue);
+    }
+
+    private int intOption(String key, int defaultValue) {
+        return Integer.parseInt(option(key, Integer.toString(defaultValue)));
+    }
+}
@@ -0,0 +1,199 @@
+package com.isaithalam.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isaithalam.model.Song;
+import com.isaithalam.provider.SongJsonReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local HTTP server standing in for saavn.me or itunes.apple.com. Answers the same paths
+// the providers call with bodies built from the recorded Saavn payloads under stub/,
+// after a delay drawn from the configured distribution and with an injected error rate.
+// Each provider gets its own instance (and port) so the app's per-host connection limits
+// apply as they would against the real hosts.
+final class UpstreamSimulator implements AutoCloseable {
+
+    private final String name;
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final List<byte[]> saavnBodies;
+    private final List<Song> songs;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    UpstreamSimulator(String name, LatencyDistribution latency, double errorRate) throws IOException {
+        this.name = name;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.saavnBodies = new ArrayList<>();
+        this.songs = new ArrayList<>();
+        SongJsonReader reader = new SongJsonReader(objectMapper);
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:stub/*.json")) {
+            byte[] body;
+            try (InputStream in = resource.getInputStream()) {
+                body = in.readAllBytes();
+            }
+            List<Song> parsed = reader.readSaavnResults(new ByteArrayInputStream(body));
+            if (!parsed.isEmpty()) {
+                saavnBodies.add(body);
+                songs.addAll(parsed);
+            }
+        }
+        if (saavnBodies.isEmpty()) {
+            throw new IllegalStateException("No recorded payloads found under classpath:stub/");
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        // Unbounded on purpose: a slow upstream is simulated by sleeping, not by queueing
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "upstream-sim-" + name + "-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/search/songs", exchange -> respond(exchange, this::saavnSearch));
+        server.createContext("/search", exchange -> respond(exchange, this::itunesSearch));
+        server.createContext("/lookup", exchange -> respond(exchange, this::itunesLookup));
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("injectedErrors", injectedErrors.get());
+        return stats;
+    }
+
+    private interface Body {
+        byte[] build(Map<String, String> query) throws IOException;
+    }
+
+    private void respond(HttpExchange exchange, Body body) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = latency.sampleMillis(random);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            byte[] bytes = body.build(queryParams(exchange.getRequestURI().getRawQuery()));
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // A query always gets the same recording, as a real search would
+    private byte[] saavnSearch(Map<String, String> query) {
+        String q = query.getOrDefault("query", "");
+        return saavnBodies.get(Math.floorMod(q.hashCode(), saavnBodies.size()));
+    }
+
+    private byte[] itunesSearch(Map<String, String> query) throws IOException {
+        String term = query.getOrDefault("term", "");
+        Random random = new Random(term.hashCode());
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Song song = songs.get(random.nextInt(songs.size()));
+            results.add(itunesTrack(1_000_000_000L + Math.floorMod(song.getExternalId().hashCode(), 100_000_000), song));
+        }
+        return itunesBody(results);
+    }
+
+    private byte[] itunesLookup(Map<String, String> query) throws IOException {
+        long id;
+        try {
+            id = Long.parseLong(query.getOrDefault("id", ""));
+        } catch (NumberFormatException e) {
+            return itunesBody(List.of());
+        }
+        Song song = songs.get((int) Math.floorMod(id, (long) songs.size()));
+        return itunesBody(List.of(itunesTrack(id, song)));
+    }
+
+    private Map<String, Object> itunesTrack(long trackId, Song song) {
+        Map<String, Object> track = new LinkedHashMap<>();
+        track.put("wrapperType", "track");
+        track.put("kind", "song");
+        track.put("trackId", trackId);
+        track.put("artistName", song.getArtistName());
+        track.put("collectionName", song.getAlbumName());
+        track.put("trackName", song.getTitle());
+        track.put("previewUrl", song.getAudioUrl());
+        track.put("artworkUrl100", song.getCoverImageUrl());
+        track.put("trackTimeMillis", song.getDuration() * 1000L);
+        track.put("primaryGenreName", "Tamil");
+        return track;
+    }
+
+    private byte[] itunesBody(List<Map<String, Object>> results) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("resultCount", results.size());
+        body.put("results", results);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return name + " simulator (" + latency + ", error rate " + errorRate + ")";
+    }
+}
@@ -0,0 +1,142 @@
+package com.isaithalam.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// The request mix a load test drives, e.g. "search:50,trending:20,play:20,playlist:10".
+// Search queries follow a Zipf-like popularity curve over a fixed set of distinct
+// queries, so caches see the skew real traffic has. Playlist traffic is mostly page
+// reads with a share of adds and removes on a playlist of its own.
+final class Workload {
+
+    static final List<String> OPERATIONS = List.of("search", "trending", "play", "playlist");
+    private static final String[] WORDS = {
+            "anirudh", "rahman", "yuvan", "ilaiyaraaja", "harris", "santhosh", "gv prakash", "sid sriram",
+            "kadhal", "love", "neon", "dreams", "midnight", "raaga", "rowdy", "baby", "vaathi", "coming",
+            "arabic", "kuthu", "believer", "chaleya", "hukum", "naa ready", "jailer", "leo", "vikram",
+            "beast", "master", "kaavaalaa", "aasa kooda", "think indie", "chill", "workout", "melody", "tamil"
+    };
+
+    private final String baseUrl;
+    private final String[] mixOps;
+    private final double[] mixCumulative;
+    private final String[] queries;
+    private final double[] queryCumulative;
+    private final int songCount;
+    private final int readPlaylists;
+    private final long writePlaylistId;
+    private final Duration timeout;
+
+    Workload(String baseUrl, String mix, int distinctQueries, int songCount, int readPlaylists,
+             long writePlaylistId, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.songCount = songCount;
+        this.readPlaylists = readPlaylists;
+        this.writePlaylistId = writePlaylistId;
+        this.timeout = timeout;
+
+        Map<String, Double> weights = parseMix(mix);
+        mixOps = weights.keySet().toArray(new String[0]);
+        mixCumulative = cumulative(weights.values().stream().mapToDouble(Double::doubleValue).toArray());
+
+        Random random = new Random(42);
+        queries = new String[distinctQueries];
+        double[] popularity = new double[distinctQueries];
+        for (int i = 0; i < distinctQueries; i++) {
+            String q = WORDS[random.nextInt(WORDS.length)];
+            if (random.nextInt(3) == 0) {
+                q += " " + WORDS[random.nextInt(WORDS.length)];
+            }
+            // Distinct suffixes past the head so every slot is its own cache key
+            queries[i] = i < WORDS.length ? WORDS[i] : q + " " + Integer.toString(i, 36);
+            popularity[i] = 1.0 / (i + 1);
+        }
+        queryCumulative = cumulative(popularity);
+    }
+
+    static Map<String, Double> parseMix(String mix) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2 || !OPERATIONS.contains(kv[0])) {
+                throw new IllegalArgumentException("Bad mix entry '" + part + "', expected one of " + OPERATIONS + " as op:weight");
+            }
+            weights.put(kv[0], Double.parseDouble(kv[1]));
+        }
+        return weights;
+    }
+
+    // Picks the next operation and builds its request; the op name is what latencies are filed under
+    Request next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String op = mixOps[pick(mixCumulative, random.nextDouble())];
+        return switch (op) {
+            case "search" -> new Request(op, get("/api/songs/search?q="
+                    + URLEncoder.encode(queries[pick(queryCumulative, random.nextDouble())], StandardCharsets.UTF_8)));
+            case "trending" -> new Request(op, get("/api/songs/trending"));
+            case "play" -> new Request(op, HttpRequest.newBuilder(uri("/api/songs/" + (1 + random.nextInt(songCount)) + "/play"))
+                    .timeout(timeout).PUT(HttpRequest.BodyPublishers.noBody()).build());
+            default -> playlistRequest(random);
+        };
+    }
+
+    private Request playlistRequest(ThreadLocalRandom random) {
+        int roll = random.nextInt(10);
+        long songId = 1 + random.nextInt(songCount);
+        if (roll < 7) {
+            return new Request("playlist", get("/api/playlists/" + (1 + random.nextInt(readPlaylists)) + "/songs?page=0&size=50"));
+        }
+        String path = "/api/playlists/" + writePlaylistId + "/songs/" + songId;
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(roll < 9 ? path + "?position=" + random.nextInt(8) : path))
+                .timeout(timeout);
+        return new Request("playlist", roll < 9
+                ? builder.POST(HttpRequest.BodyPublishers.noBody()).build()
+                : builder.DELETE().build());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(timeout).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double total = 0;
+        for (double w : weights) {
+            total += w;
+        }
+        double[] cumulative = new double[weights.length];
+        double running = 0;
+        for (int i = 0; i < weights.length; i++) {
+            running += weights[i] / total;
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double roll) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < roll) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    record Request(String operation, HttpRequest request) {}
+}
@@ -2,8 +2,10 @@ package com.isaithalam;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class IsaiThalamApplication {
     public static void main(String[] args) {
         SpringApplication.run(IsaiThalamApplication.class, args);
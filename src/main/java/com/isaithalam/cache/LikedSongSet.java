@@ -0,0 +1,66 @@
+package com.isaithalam.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+// One user's liked song ids as a sorted long[]: 8 bytes a like, no boxing, membership by
+// binary search and id-ordered pages by a range copy. Song ids are sparse, so this stays
+// smaller than a bitmap over the id space. Immutable; a toggle builds a new set, which
+// LikeService publishes in place of the old one, so readers never lock.
+public final class LikedSongSet {
+    public static final LikedSongSet EMPTY = new LikedSongSet(new long[0]);
+
+    private final long[] ids;
+
+    private LikedSongSet(long[] ids) {
+        this.ids = ids;
+    }
+
+    // Ids must be ascending and distinct, as SongLikeRepository.findSongIds returns them
+    public static LikedSongSet of(List<Long> sortedIds) {
+        long[] ids = new long[sortedIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = sortedIds.get(i);
+        }
+        return new LikedSongSet(ids);
+    }
+
+    public boolean contains(long songId) {
+        return Arrays.binarySearch(ids, songId) >= 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public LikedSongSet with(long songId) {
+        int at = Arrays.binarySearch(ids, songId);
+        if (at >= 0) {
+            return this;
+        }
+        int insert = -at - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insert);
+        grown[insert] = songId;
+        System.arraycopy(ids, insert, grown, insert + 1, ids.length - insert);
+        return new LikedSongSet(grown);
+    }
+
+    public LikedSongSet without(long songId) {
+        int at = Arrays.binarySearch(ids, songId);
+        if (at < 0) {
+            return this;
+        }
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, at);
+        System.arraycopy(ids, at + 1, shrunk, at, ids.length - at - 1);
+        return new LikedSongSet(shrunk);
+    }
+
+    // Up to max ids greater than afterId, ascending
+    public long[] after(long afterId, int max) {
+        int at = Arrays.binarySearch(ids, afterId);
+        int from = at >= 0 ? at + 1 : -at - 1;
+        return Arrays.copyOfRange(ids, from, Math.min(ids.length, from + Math.max(max, 0)));
+    }
+}
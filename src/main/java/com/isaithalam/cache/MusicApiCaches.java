@@ -0,0 +1,95 @@
+package com.isaithalam.cache;
+
+import com.isaithalam.model.Song;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-source caches for upstream music API results. Search and trending lists are
+// weighed by song count so max-weight bounds the number of cached Song objects.
+// Songs are entities callers modify (ids, play counts), so every cache copies them in and out.
+@Component
+public class MusicApiCaches {
+    private final ThreadPoolExecutor refreshExecutor;
+    private final ResultCache<String, List<Song>> saavnSearch;
+    private final ResultCache<String, List<Song>> itunesSearch;
+    private final ResultCache<String, List<Song>> trending;
+    private final ResultCache<Long, Song> lookup;
+
+    public MusicApiCaches(
+            @Value("${isaithalam.cache.saavn-search.ttl-seconds:300}") long saavnTtl,
+            @Value("${isaithalam.cache.itunes-search.ttl-seconds:60}") long itunesTtl,
+            @Value("${isaithalam.cache.trending.ttl-seconds:600}") long trendingTtl,
+            @Value("${isaithalam.cache.lookup.ttl-seconds:3600}") long lookupTtl,
+            @Value("${isaithalam.cache.stale-while-revalidate-seconds:120}") long staleSeconds,
+            @Value("${isaithalam.cache.max-entries:2000}") int maxEntries,
+            @Value("${isaithalam.cache.max-weight:50000}") long maxWeight) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(1, 4, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                r -> {
+                    Thread t = new Thread(r, "cache-refresh-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+
+        long staleMs = TimeUnit.SECONDS.toMillis(staleSeconds);
+        this.saavnSearch = new ResultCache<>("saavnSearch", TimeUnit.SECONDS.toMillis(saavnTtl), staleMs,
+                maxEntries, maxWeight, List::size, refreshExecutor, MusicApiCaches::copySongs);
+        this.itunesSearch = new ResultCache<>("itunesSearch", TimeUnit.SECONDS.toMillis(itunesTtl), staleMs,
+                maxEntries, maxWeight, List::size, refreshExecutor, MusicApiCaches::copySongs);
+        this.trending = new ResultCache<>("trending", TimeUnit.SECONDS.toMillis(trendingTtl), staleMs,
+                16, maxWeight, List::size, refreshExecutor, MusicApiCaches::copySongs);
+        this.lookup = new ResultCache<>("lookup", TimeUnit.SECONDS.toMillis(lookupTtl), staleMs,
+                maxEntries, maxEntries, song -> 1, refreshExecutor, Song::copyOf);
+    }
+
+    private static List<Song> copySongs(List<Song> songs) {
+        List<Song> copies = new ArrayList<>(songs.size());
+        for (Song song : songs) {
+            copies.add(Song.copyOf(song));
+        }
+        return copies;
+    }
+
+    // "  Latest   TAMIL " and "latest tamil" share one entry
+    public static String normalizeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public ResultCache<String, List<Song>> saavnSearch() { return saavnSearch; }
+    public ResultCache<String, List<Song>> itunesSearch() { return itunesSearch; }
+    public ResultCache<String, List<Song>> trending() { return trending; }
+    public ResultCache<Long, Song> lookup() { return lookup; }
+
+    public List<ResultCache<?, ?>> all() {
+        return List.of(saavnSearch, itunesSearch, trending, lookup);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (ResultCache<?, ?> cache : all()) {
+            stats.put(cache.getName(), cache.stats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
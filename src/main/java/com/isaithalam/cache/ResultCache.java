@@ -0,0 +1,281 @@
+package com.isaithalam.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+// In-memory result cache with a TTL, LRU eviction bounded by entry count and total
+// weight, and an optional stale-while-revalidate window. Loader failures are never
+// cached: they are rethrown to the caller, or dropped on a background refresh so the
+// stale value keeps being served. Concurrent misses on one key are coalesced: the first
+// caller loads, the rest wait for and share its result (or its failure).
+// Values may be mutable (JPA entities): with a copier the cache stores its own copy of
+// each value and hands every caller a fresh copy, so no caller sees another's changes.
+public class ResultCache<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws Exception;
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final int weight;
+        final long loadedAt;
+        volatile boolean refreshing;
+
+        Entry(V value, int weight, long loadedAt) {
+            this.value = value;
+            this.weight = weight;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final String name;
+    private final long ttlMs;
+    private final long staleMs;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToIntFunction<V> weigher;
+    private final Executor refreshExecutor;
+    private final UnaryOperator<V> copier;
+
+    // Access-ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+    // Loads in progress, so a burst of misses on one key costs a single upstream call
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public ResultCache(String name, long ttlMs, long staleMs, int maxEntries, long maxWeight,
+                       ToIntFunction<V> weigher, Executor refreshExecutor) {
+        this(name, ttlMs, staleMs, maxEntries, maxWeight, weigher, refreshExecutor, UnaryOperator.identity());
+    }
+
+    public ResultCache(String name, long ttlMs, long staleMs, int maxEntries, long maxWeight,
+                       ToIntFunction<V> weigher, Executor refreshExecutor, UnaryOperator<V> copier) {
+        this.name = name;
+        this.ttlMs = ttlMs;
+        this.staleMs = staleMs;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.refreshExecutor = refreshExecutor;
+        this.copier = copier;
+    }
+
+    public V get(K key, Loader<V> loader) throws Exception {
+        long now = System.currentTimeMillis();
+        Entry<V> entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age <= ttlMs) {
+                hits.incrementAndGet();
+                return copier.apply(entry.value);
+            }
+            if (age <= ttlMs + staleMs) {
+                staleHits.incrementAndGet();
+                refreshAsync(key, entry, loader);
+                return copier.apply(entry.value);
+            }
+        }
+
+        misses.incrementAndGet();
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return copier.apply(await(existing));
+        }
+        try {
+            // The previous load may have finished between our lookup and claiming the key
+            V fresh = freshValue(key);
+            V value = fresh != null ? fresh : loader.load();
+            if (fresh == null) {
+                put(key, value);
+            }
+            load.complete(value);
+            // Waiters copy the same value, so the caller gets a copy of its own
+            return copier.apply(value);
+        } catch (Exception e) {
+            loadFailures.incrementAndGet();
+            load.completeExceptionally(e);
+            throw e;
+        } catch (Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    // Non-blocking get for callers that load asynchronously. Each caller gets its own future
+    // derived from the shared one, so cancelling one (e.g. on a deadline) leaves the load
+    // running for the others. Stale entries are not served here; a miss is a miss.
+    public CompletableFuture<V> getAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        V hit = getIfPresent(key);
+        if (hit != null) {
+            return CompletableFuture.completedFuture(hit);
+        }
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing.thenApply(copier);
+        }
+        // The previous load may have finished between our lookup and claiming the key
+        V fresh = freshValue(key);
+        if (fresh != null) {
+            inFlight.remove(key, load);
+            load.complete(fresh);
+            return load.thenApply(copier);
+        }
+        CompletableFuture<V> source;
+        try {
+            source = loader.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        source.whenComplete((value, error) -> {
+            // Cache before releasing the key so later callers hit the entry, not a new load
+            if (error == null) {
+                put(key, value);
+            } else {
+                loadFailures.incrementAndGet();
+            }
+            inFlight.remove(key, load);
+            if (error == null) {
+                load.complete(value);
+            } else {
+                load.completeExceptionally(error);
+            }
+        });
+        return load.thenApply(copier);
+    }
+
+    // Returns a copy, which the caller owns
+    private V freshValue(K key) {
+        Entry<V> entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        return entry != null && System.currentTimeMillis() - entry.loadedAt <= ttlMs ? copier.apply(entry.value) : null;
+    }
+
+    private static <V> V await(CompletableFuture<V> load) throws Exception {
+        try {
+            return load.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    public V getIfPresent(K key) {
+        V value = freshValue(key);
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        V stored = copier.apply(value);
+        int weight = Math.max(1, weigher.applyAsInt(stored));
+        synchronized (this) {
+            Entry<V> previous = entries.put(key, new Entry<>(stored, weight, System.currentTimeMillis()));
+            if (previous != null) {
+                totalWeight -= previous.weight;
+            }
+            totalWeight += weight;
+            evictIfNeeded();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    private void refreshAsync(K key, Entry<V> stale, Loader<V> loader) {
+        if (stale.refreshing) {
+            return;
+        }
+        stale.refreshing = true;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(key, loader.load());
+                } catch (Exception e) {
+                    loadFailures.incrementAndGet();
+                } finally {
+                    stale.refreshing = false;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stale.refreshing = false;
+        }
+    }
+
+    // Caller must hold the monitor
+    private void evictIfNeeded() {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && it.hasNext()) {
+            Entry<V> eldest = it.next();
+            it.remove();
+            totalWeight -= eldest.weight;
+            evictions.incrementAndGet();
+        }
+    }
+
+    public String getName() { return name; }
+    public synchronized int size() { return entries.size(); }
+    public synchronized long weight() { return totalWeight; }
+    public long hitCount() { return hits.get(); }
+    public long staleHitCount() { return staleHits.get(); }
+    public long missCount() { return misses.get(); }
+    public long evictionCount() { return evictions.get(); }
+    public long loadFailureCount() { return loadFailures.get(); }
+    public long coalescedCount() { return coalesced.get(); }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("weight", weight());
+        stats.put("hits", hitCount());
+        stats.put("staleHits", staleHitCount());
+        stats.put("misses", missCount());
+        stats.put("evictions", evictionCount());
+        stats.put("loadFailures", loadFailureCount());
+        stats.put("coalesced", coalescedCount());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+}
@@ -0,0 +1,119 @@
+package com.isaithalam.config;
+
+import com.isaithalam.media.PublicAddressDnsResolver;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+// Shared outbound HTTP stack: one keep-alive connection pool with per-host limits and
+// connect/read/pool-acquire timeouts, used by every upstream call (Saavn, iTunes, Google).
+// Gzip responses are decompressed transparently by the client. The media cache gets its
+// own client that returns redirects instead of following them, so each hop can be checked
+// against MediaUrlPolicy first. It has its own pool too, whose resolver refuses
+// non-public addresses: a connection opened by the shared pool was never vetted.
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public PoolingHttpClientConnectionManager httpConnectionManager(
+            @Value("${isaithalam.http.max-connections:200}") int maxConnections,
+            @Value("${isaithalam.http.max-connections-per-host:50}") int maxPerHost,
+            @Value("${isaithalam.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${isaithalam.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${isaithalam.http.connection-ttl-seconds:300}") long connectionTtlSeconds) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager mediaConnectionManager(
+            @Value("${isaithalam.media.max-downloads:16}") int maxDownloads,
+            @Value("${isaithalam.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${isaithalam.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${isaithalam.http.connection-ttl-seconds:300}") long connectionTtlSeconds) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setDnsResolver(new PublicAddressDnsResolver())
+                .setMaxConnTotal(maxDownloads)
+                .setMaxConnPerRoute(maxDownloads)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager httpConnectionManager,
+            @Value("${isaithalam.http.pool-acquire-timeout-ms:1000}") long acquireTimeoutMs,
+            @Value("${isaithalam.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${isaithalam.http.keep-alive-seconds:30}") long keepAliveSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(requestConfig(acquireTimeoutMs, readTimeoutMs, keepAliveSeconds))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient mediaHttpClient(
+            @Qualifier("mediaConnectionManager") PoolingHttpClientConnectionManager mediaConnectionManager,
+            @Value("${isaithalam.http.pool-acquire-timeout-ms:1000}") long acquireTimeoutMs,
+            @Value("${isaithalam.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${isaithalam.http.keep-alive-seconds:30}") long keepAliveSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(mediaConnectionManager)
+                // The pool is a bean and is closed as one; closing this client must not close it
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(requestConfig(acquireTimeoutMs, readTimeoutMs, keepAliveSeconds))
+                .disableRedirectHandling()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public RestTemplate mediaRestTemplate(@Qualifier("mediaHttpClient") CloseableHttpClient mediaHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(mediaHttpClient));
+    }
+
+    private static RequestConfig requestConfig(long acquireTimeoutMs, long readTimeoutMs, long keepAliveSeconds) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                // Used when the server does not send a Keep-Alive header
+                .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+}
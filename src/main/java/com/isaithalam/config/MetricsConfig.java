@@ -0,0 +1,110 @@
+package com.isaithalam.config;
+
+import com.isaithalam.cache.MusicApiCaches;
+import com.isaithalam.cache.ResultCache;
+import com.isaithalam.media.MediaCache;
+import com.isaithalam.resilience.CircuitBreaker;
+import com.isaithalam.resilience.ProviderCircuitBreakers;
+import com.isaithalam.service.OtpService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Exposes the counters the components already keep (see /api/stats) as Micrometer meters,
+// read on scrape rather than updated on the request path. Request latency
+// (http.server.requests), repository timings (spring.data.repository.invocations) and
+// JVM meters come from Spring Boot; upstream calls are timed by MeteredMusicProvider.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder resultCacheMetrics(MusicApiCaches caches) {
+        return registry -> {
+            for (ResultCache<?, ?> cache : caches.all()) {
+                String name = cache.getName();
+                FunctionCounter.builder("isaithalam.cache.gets", cache, ResultCache::hitCount)
+                        .tags("cache", name, "result", "hit").register(registry);
+                FunctionCounter.builder("isaithalam.cache.gets", cache, ResultCache::staleHitCount)
+                        .tags("cache", name, "result", "stale").register(registry);
+                FunctionCounter.builder("isaithalam.cache.gets", cache, ResultCache::missCount)
+                        .tags("cache", name, "result", "miss").register(registry);
+                FunctionCounter.builder("isaithalam.cache.evictions", cache, ResultCache::evictionCount)
+                        .tag("cache", name).register(registry);
+                FunctionCounter.builder("isaithalam.cache.load.failures", cache, ResultCache::loadFailureCount)
+                        .tag("cache", name).register(registry);
+                FunctionCounter.builder("isaithalam.cache.coalesced", cache, ResultCache::coalescedCount)
+                        .description("Misses that waited on another caller's load")
+                        .tag("cache", name).register(registry);
+                Gauge.builder("isaithalam.cache.hit.ratio", cache, MetricsConfig::hitRatio)
+                        .description("Fresh and stale hits over all lookups since startup")
+                        .tag("cache", name).register(registry);
+                Gauge.builder("isaithalam.cache.size", cache, ResultCache::size)
+                        .tag("cache", name).register(registry);
+                Gauge.builder("isaithalam.cache.weight", cache, ResultCache::weight)
+                        .tag("cache", name).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder mediaCacheMetrics(MediaCache mediaCache) {
+        return registry -> {
+            FunctionCounter.builder("isaithalam.media.cache.gets", mediaCache, MediaCache::hitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("isaithalam.media.cache.gets", mediaCache, MediaCache::missCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("isaithalam.media.fetch.failures", mediaCache, MediaCache::fetchFailureCount)
+                    .register(registry);
+            Gauge.builder("isaithalam.media.cache.bytes", mediaCache, MediaCache::totalBytes)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder circuitBreakerMetrics(ProviderCircuitBreakers breakers) {
+        return registry -> {
+            for (CircuitBreaker breaker : breakers.all()) {
+                // 0 closed, 1 half-open, 2 open
+                Gauge.builder("isaithalam.breaker.state", breaker, b -> switch (b.getState()) {
+                            case CLOSED -> 0;
+                            case HALF_OPEN -> 1;
+                            case OPEN -> 2;
+                        })
+                        .tag("provider", breaker.getName()).register(registry);
+                FunctionCounter.builder("isaithalam.breaker.trips", breaker, CircuitBreaker::getTripCount)
+                        .tag("provider", breaker.getName()).register(registry);
+                FunctionCounter.builder("isaithalam.breaker.rejected", breaker, CircuitBreaker::getRejectedCount)
+                        .tag("provider", breaker.getName()).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder otpStoreMetrics(OtpService otpService) {
+        return registry -> Gauge.builder("isaithalam.otp.store.size", otpService, OtpService::storeSize)
+                .description("Outstanding OTP codes, expired ones included")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder httpPoolMetrics(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(httpConnectionManager, "upstream");
+    }
+
+    @Bean
+    public MeterBinder mediaHttpPoolMetrics(
+            @Qualifier("mediaConnectionManager") PoolingHttpClientConnectionManager mediaConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(mediaConnectionManager, "media");
+    }
+
+    private static double hitRatio(ResultCache<?, ?> cache) {
+        double hits = cache.hitCount() + cache.staleHitCount();
+        double total = hits + cache.missCount();
+        return total == 0 ? 0 : hits / total;
+    }
+}
@@ -0,0 +1,66 @@
+package com.isaithalam.config;
+
+import com.isaithalam.provider.ItunesProvider;
+import com.isaithalam.provider.MeteredMusicProvider;
+import com.isaithalam.provider.MeteredTrackLookup;
+import com.isaithalam.provider.MusicProvider;
+import com.isaithalam.provider.SaavnProvider;
+import com.isaithalam.provider.SongJsonReader;
+import com.isaithalam.provider.StubMusicProvider;
+import com.isaithalam.provider.TrackLookup;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+
+// The two upstream roles: saavnProvider is the primary search and trending source,
+// itunesProvider the fallback search and the lookup-by-id source. With
+// isaithalam.provider.source=stub both are replaced by in-process stubs replaying
+// recorded payloads, so the full search path (caches, breakers, fan-out) runs offline.
+// Either way the provider is wrapped in MeteredMusicProvider (MeteredTrackLookup for the
+// lookup role) for upstream call metrics.
+@Configuration
+public class MusicProviderConfig {
+
+    @Bean
+    public MusicProvider saavnProvider(
+            @Value("${isaithalam.provider.source:live}") String source,
+            @Value("${isaithalam.provider.saavn.base-url:https://saavn.me}") String baseUrl,
+            @Value("${isaithalam.provider.stub.payloads:classpath:stub/*.json}") Resource[] payloads,
+            @Value("${isaithalam.provider.stub.saavn.latency-ms:${isaithalam.provider.stub.latency-ms:80}}") long latencyMs,
+            @Value("${isaithalam.provider.stub.saavn.jitter-ms:${isaithalam.provider.stub.jitter-ms:40}}") long jitterMs,
+            @Value("${isaithalam.provider.stub.saavn.error-rate:${isaithalam.provider.stub.error-rate:0}}") double errorRate,
+            RestTemplate restTemplate, ObjectProvider<WebClient> upstreamWebClient,
+            SongJsonReader songJsonReader, MeterRegistry meterRegistry) throws IOException {
+        MusicProvider provider = isStub(source)
+                ? new StubMusicProvider("saavn", payloads, songJsonReader, latencyMs, jitterMs, errorRate)
+                : new SaavnProvider(baseUrl, restTemplate, upstreamWebClient.getIfAvailable(), songJsonReader);
+        return new MeteredMusicProvider(provider, meterRegistry);
+    }
+
+    @Bean
+    public TrackLookup itunesProvider(
+            @Value("${isaithalam.provider.source:live}") String source,
+            @Value("${isaithalam.provider.itunes.base-url:https://itunes.apple.com}") String baseUrl,
+            @Value("${isaithalam.provider.stub.payloads:classpath:stub/*.json}") Resource[] payloads,
+            @Value("${isaithalam.provider.stub.itunes.latency-ms:${isaithalam.provider.stub.latency-ms:80}}") long latencyMs,
+            @Value("${isaithalam.provider.stub.itunes.jitter-ms:${isaithalam.provider.stub.jitter-ms:40}}") long jitterMs,
+            @Value("${isaithalam.provider.stub.itunes.error-rate:${isaithalam.provider.stub.error-rate:0}}") double errorRate,
+            RestTemplate restTemplate, ObjectProvider<WebClient> upstreamWebClient,
+            SongJsonReader songJsonReader, MeterRegistry meterRegistry) throws IOException {
+        TrackLookup provider = isStub(source)
+                ? new StubMusicProvider("itunes", payloads, songJsonReader, latencyMs, jitterMs, errorRate)
+                : new ItunesProvider(baseUrl, restTemplate, upstreamWebClient.getIfAvailable(), songJsonReader);
+        return new MeteredTrackLookup(provider, meterRegistry);
+    }
+
+    private static boolean isStub(String source) {
+        return "stub".equalsIgnoreCase(source.trim());
+    }
+}
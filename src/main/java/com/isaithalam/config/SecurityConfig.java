@@ -1,10 +1,14 @@
 package com.isaithalam.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -18,10 +22,14 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${isaithalam.admin.token:}") String adminToken) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
+                .addFilterBefore(new AdminTokenFilter(adminToken), BasicAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
+                        // Imports write catalogue rows, audio URLs included
+                        .requestMatchers("/api/imports/**", "/api/imports").hasRole("ADMIN")
                         .requestMatchers("/", "/login", "/api/auth/**").permitAll()
                         .requestMatchers("/css/**", "/js/**", "/images/**", "/media/**", "/fonts/**").permitAll()
                         .requestMatchers("/api/**").permitAll()
@@ -29,7 +37,8 @@ public class SecurityConfig {
                         .requestMatchers("/h2-console/**").permitAll()
                         .anyRequest().permitAll())
                 .headers(headers -> headers.frameOptions(frame -> frame.disable()))
-                .formLogin(form -> form.disable());
+                .formLogin(form -> form.disable())
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
 
         return http.build();
     }
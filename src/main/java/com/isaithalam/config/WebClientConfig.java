@@ -0,0 +1,51 @@
+package com.isaithalam.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+// Non-blocking upstream client for isaithalam.execution.mode=reactive. Requests waiting
+// for a connection queue inside the pool instead of parking a thread each, so the pending
+// limit, not a thread count, bounds how many upstream calls can be in flight.
+@Configuration
+@ConditionalOnProperty(name = "isaithalam.execution.mode", havingValue = "reactive")
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(
+            @Value("${isaithalam.http.max-connections-per-host:50}") int maxPerHost,
+            @Value("${isaithalam.reactive.max-pending-acquires:5000}") int maxPending,
+            @Value("${isaithalam.http.pool-acquire-timeout-ms:1000}") long acquireTimeoutMs,
+            @Value("${isaithalam.http.keep-alive-seconds:30}") long keepAliveSeconds,
+            @Value("${isaithalam.http.connection-ttl-seconds:300}") long connectionTtlSeconds) {
+        // Reactor Netty keeps one pool per remote host, so the limit here is per host
+        return ConnectionProvider.builder("upstream")
+                .maxConnections(maxPerHost)
+                .pendingAcquireMaxCount(maxPending)
+                .pendingAcquireTimeout(Duration.ofMillis(acquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(keepAliveSeconds))
+                .maxLifeTime(Duration.ofSeconds(connectionTtlSeconds))
+                .evictInBackground(Duration.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    @Bean
+    public WebClient upstreamWebClient(
+            WebClient.Builder builder,
+            ConnectionProvider upstreamConnectionProvider,
+            @Value("${isaithalam.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${isaithalam.http.read-timeout-ms:5000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+}
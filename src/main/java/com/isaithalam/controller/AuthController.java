@@ -7,28 +7,30 @@ import com.isaithalam.model.User;
 import com.isaithalam.service.OtpService;
 import com.isaithalam.service.UserService;
 import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
 
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.Map;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final OtpService otpService;
     private final UserService userService;
-    private final ObjectMapper objectMapper;
+    private final RestTemplate restTemplate;
 
-    public AuthController(OtpService otpService, UserService userService, ObjectMapper objectMapper) {
+    public AuthController(OtpService otpService, UserService userService, RestTemplate restTemplate) {
         this.otpService = otpService;
         this.userService = userService;
-        this.objectMapper = objectMapper;
+        this.restTemplate = restTemplate;
     }
 
     // ---- Email/Password Auth ----
@@ -138,17 +140,16 @@ public class AuthController {
 
         try {
             // Verify the ID token with Google's tokeninfo endpoint
-            URL url = new URL("https://oauth2.googleapis.com/tokeninfo?id_token=" + idToken);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-
-            int responseCode = conn.getResponseCode();
-            if (responseCode == 200) {
-                InputStream is = conn.getInputStream();
-                JsonNode tokenInfo = objectMapper.readTree(is);
-                is.close();
+            ResponseEntity<JsonNode> tokenResponse;
+            try {
+                tokenResponse = restTemplate.getForEntity(
+                        "https://oauth2.googleapis.com/tokeninfo?id_token={idToken}", JsonNode.class, idToken);
+            } catch (HttpStatusCodeException e) {
+                tokenResponse = ResponseEntity.status(e.getStatusCode()).build();
+            }
+
+            if (tokenResponse.getStatusCode().value() == 200 && tokenResponse.getBody() != null) {
+                JsonNode tokenInfo = tokenResponse.getBody();
 
                 String email = tokenInfo.has("email") ? tokenInfo.get("email").asText() : null;
                 String name = tokenInfo.has("name") ? tokenInfo.get("name").asText() : null;
@@ -188,7 +189,7 @@ public class AuthController {
                         "message", "Invalid Google token. Please sign in again."));
             }
         } catch (Exception e) {
-            System.err.println("Google token verification error: " + e.getMessage());
+            log.warn("Google token verification error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "Google sign-in verification failed. Please try again."));
@@ -0,0 +1,40 @@
+package com.isaithalam.controller;
+
+import com.isaithalam.dto.CursorPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Keyset-paginated list responses. The body stays a plain array; the next page is
+// advertised as a Link rel="next" URL (this request with its cursor replaced) and as
+// X-Next-Cursor, and both are absent on the last page.
+final class CursorResponses {
+
+    private CursorResponses() {}
+
+    static <T> ResponseEntity<?> of(Supplier<CursorPage<T>> page) {
+        CursorPage<T> result;
+        try {
+            result = page.get();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        return withNextCursor(ResponseEntity.ok(), result.getNextCursor()).body(result.getItems());
+    }
+
+    static ResponseEntity.BodyBuilder withNextCursor(ResponseEntity.BodyBuilder response, String nextCursor) {
+        if (nextCursor == null) {
+            return response;
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page")
+                .replaceQueryParam("cursor", nextCursor)
+                .toUriString();
+        return response
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .header("X-Next-Cursor", nextCursor);
+    }
+}
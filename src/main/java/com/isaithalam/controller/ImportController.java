@@ -0,0 +1,68 @@
+package com.isaithalam.controller;
+
+import com.isaithalam.dto.ImportStatus;
+import com.isaithalam.importer.CatalogueImportService;
+import com.isaithalam.importer.ImportFormat;
+import com.isaithalam.importer.ImportJob;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Bulk catalogue imports. The request body is the file itself, e.g.
+//   curl --data-binary @songs.csv -H 'Content-Type: text/csv' localhost:8080/api/imports
+// and the response is 202 with the job's status URL; poll it for progress.
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+    private final CatalogueImportService importService;
+
+    public ImportController(CatalogueImportService importService) {
+        this.importService = importService;
+    }
+
+    // format is read from the query string directly: a form content type would make
+    // @RequestParam parse (and consume) the body
+    @PostMapping
+    public ResponseEntity<?> startImport(HttpServletRequest request,
+                                         @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType)
+            throws IOException {
+        ImportFormat format;
+        try {
+            format = ImportFormat.resolve(queryParam(request, "format"), contentType);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        String name = queryParam(request, "name");
+        ImportJob job = importService.submit(request.getInputStream(), format, name != null ? name : "upload");
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job.status());
+    }
+
+    @GetMapping
+    public List<ImportStatus> getImports() {
+        return importService.getJobs().stream().map(ImportJob::status).toList();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportStatus> getImport(@PathVariable long id) {
+        ImportJob job = importService.getJob(id);
+        return job != null ? ResponseEntity.ok(job.status()) : ResponseEntity.notFound().build();
+    }
+
+    private static String queryParam(HttpServletRequest request, String name) {
+        String value = ServletUriComponentsBuilder.fromRequest(request).build().getQueryParams().getFirst(name);
+        return value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.isaithalam.controller;
+
+import com.isaithalam.media.ByteRange;
+import com.isaithalam.media.MediaCache;
+import com.isaithalam.media.MediaUrlPolicy;
+import com.isaithalam.model.Song;
+import com.isaithalam.service.SongService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+// Streams song audio from the local media cache with Range support, so the player can
+// seek. Bytes go out through FileChannel.transferTo from a channel the cache opened
+// before this handler returns. Tomcat's sendfile is not used: it opens the file by name
+// after the handler returns, by which time an eviction may have deleted it.
+@RestController
+public class MediaController {
+    private static final Logger log = LoggerFactory.getLogger(MediaController.class);
+
+    private final SongService songService;
+    private final MediaCache mediaCache;
+
+    public MediaController(SongService songService, MediaCache mediaCache) {
+        this.songService = songService;
+        this.mediaCache = mediaCache;
+    }
+
+    @GetMapping("/media/{songId}")
+    public void stream(@PathVariable Long songId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Song song = songService.getSongById(songId);
+        if (song == null || song.getAudioUrl() == null || song.getAudioUrl().isBlank()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        MediaCache.Handle media;
+        try {
+            media = mediaCache.open(songId, song.getAudioUrl());
+        } catch (IOException | RuntimeException e) {
+            // Can't or won't cache it (upstream down, too large, not audio, host not allowed):
+            // the player may still go there itself, but the server never proxies it
+            log.warn("Media cache miss for song {}: {}", songId, e.getMessage());
+            if (MediaUrlPolicy.isHttpUrl(song.getAudioUrl())) {
+                response.sendRedirect(song.getAudioUrl().trim());
+            } else {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+            return;
+        }
+
+        try (media) {
+            serve(media, request, response);
+        }
+    }
+
+    private void serve(MediaCache.Handle media, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long length = media.getLength();
+        ByteRange range;
+        try {
+            range = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), length);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        long start = range != null ? range.getStart() : 0;
+        long count = range != null ? range.getLength() : length;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=86400");
+        response.setContentType(media.getContentType());
+        response.setContentLengthLong(count);
+        if (range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.getStart() + "-" + range.getEnd() + "/" + length);
+        }
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        media.transferTo(start, count, Channels.newChannel(response.getOutputStream()));
+    }
+}
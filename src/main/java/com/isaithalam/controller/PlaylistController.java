@@ -1,7 +1,12 @@
 package com.isaithalam.controller;
 
-import com.isaithalam.model.Playlist;
+import com.isaithalam.dto.CursorPage;
+import com.isaithalam.dto.PlaylistSummary;
+import com.isaithalam.model.Song;
 import com.isaithalam.service.PlaylistService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -17,34 +22,76 @@ public class PlaylistController {
     }
 
     @GetMapping
-    public List<Playlist> getAllPlaylists() {
+    public List<PlaylistSummary> getAllPlaylists() {
         return playlistService.getAllPlaylists();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Playlist> getPlaylist(@PathVariable Long id) {
-        Playlist p = playlistService.getPlaylistById(id);
+    public ResponseEntity<PlaylistSummary> getPlaylist(@PathVariable Long id) {
+        PlaylistSummary p = playlistService.getPlaylistById(id);
         return p != null ? ResponseEntity.ok(p) : ResponseEntity.notFound().build();
     }
 
+    // Body is the page of songs; totals travel in headers so the payload stays a plain array.
+    // With ?cursor= (empty for the first page) pages are keyset-based and carry no totals;
+    // offset pages also advertise the cursor continuing them (see CursorResponses).
+    @GetMapping("/{id}/songs")
+    public ResponseEntity<?> getPlaylistSongs(@PathVariable Long id,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "50") int size,
+                                              @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            CursorPage<Song> songs;
+            try {
+                songs = playlistService.getPlaylistSongs(id, cursor, size);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+            if (songs == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return CursorResponses.withNextCursor(ResponseEntity.ok(), songs.getNextCursor()).body(songs.getItems());
+        }
+
+        Page<Song> songs = playlistService.getPlaylistSongs(id, page, size);
+        if (songs == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String next = songs.hasNext() && songs.hasContent()
+                ? playlistService.cursorAfter(id, songs.getContent().get(songs.getNumberOfElements() - 1))
+                : null;
+        return CursorResponses.withNextCursor(ResponseEntity.ok(), next)
+                .header("X-Total-Count", String.valueOf(songs.getTotalElements()))
+                .header("X-Total-Pages", String.valueOf(songs.getTotalPages()))
+                .body(songs.getContent());
+    }
+
     @PostMapping
-    public ResponseEntity<Playlist> createPlaylist(@RequestBody Map<String, String> body) {
+    public ResponseEntity<PlaylistSummary> createPlaylist(@RequestBody Map<String, String> body) {
         String name = body.getOrDefault("name", "My Playlist");
         String description = body.getOrDefault("description", "");
         Long userId = Long.parseLong(body.getOrDefault("userId", "1"));
-        Playlist playlist = playlistService.createPlaylist(name, description, userId);
+        PlaylistSummary playlist = playlistService.createPlaylist(name, description, userId);
         return ResponseEntity.ok(playlist);
     }
 
+    // position is the 0-based index to insert at (or move to); omit it to append
     @PostMapping("/{id}/songs/{songId}")
-    public ResponseEntity<Playlist> addSong(@PathVariable Long id, @PathVariable Long songId) {
-        Playlist p = playlistService.addSongToPlaylist(id, songId);
+    public ResponseEntity<?> addSong(@PathVariable Long id, @PathVariable Long songId,
+                                     @RequestParam(required = false) Integer position) {
+        PlaylistSummary p;
+        try {
+            p = playlistService.addSongToPlaylist(id, songId, position);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent add of the same song
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Song is already in this playlist"));
+        }
         return p != null ? ResponseEntity.ok(p) : ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{id}/songs/{songId}")
-    public ResponseEntity<Playlist> removeSong(@PathVariable Long id, @PathVariable Long songId) {
-        Playlist p = playlistService.removeSongFromPlaylist(id, songId);
+    public ResponseEntity<PlaylistSummary> removeSong(@PathVariable Long id, @PathVariable Long songId) {
+        PlaylistSummary p = playlistService.removeSongFromPlaylist(id, songId);
         return p != null ? ResponseEntity.ok(p) : ResponseEntity.notFound().build();
     }
 
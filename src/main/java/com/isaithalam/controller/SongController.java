@@ -1,11 +1,18 @@
 package com.isaithalam.controller;
 
+import com.isaithalam.dto.Suggestion;
 import com.isaithalam.model.Song;
+import com.isaithalam.search.FacetIndex;
+import com.isaithalam.service.LikeService;
 import com.isaithalam.service.SongService;
+import com.isaithalam.service.TrendingService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/songs")
@@ -16,15 +23,28 @@ public class SongController {
         this.songService = songService;
     }
 
+    // List endpoints return one keyset page (limit capped at SongService.MAX_PAGE_SIZE);
+    // follow the Link rel="next" header or pass X-Next-Cursor back as ?cursor= for the next
     @GetMapping
-    public List<Song> getAllSongs() {
-        return songService.getAllSongs();
+    public ResponseEntity<?> getAllSongs(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int limit) {
+        return CursorResponses.of(() -> songService.getSongs(cursor, limit));
     }
 
+    // Handlers returning futures complete asynchronously: in reactive mode the servlet
+    // thread is released while upstream calls are in flight
     @GetMapping("/{id}")
-    public ResponseEntity<Song> getSong(@PathVariable Long id) {
-        Song song = songService.getSongById(id);
-        return song != null ? ResponseEntity.ok(song) : ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<Song>> getSong(@PathVariable Long id) {
+        return songService.getSongByIdAsync(id)
+                .thenApply(song -> song != null ? ResponseEntity.ok(song) : ResponseEntity.notFound().build());
+    }
+
+    // Looks a song up by iTunes track id, for clients from before every song had a local id;
+    // the response's id is the local one to use from then on
+    @GetMapping("/itunes/{trackId}")
+    public CompletableFuture<ResponseEntity<Song>> getByItunesTrackId(@PathVariable Long trackId) {
+        return songService.getByItunesTrackIdAsync(trackId)
+                .thenApply(song -> song != null ? ResponseEntity.ok(song) : ResponseEntity.notFound().build());
     }
 
     @GetMapping("/trending")
@@ -32,24 +52,79 @@ public class SongController {
         return songService.getTrending();
     }
 
+    @GetMapping("/trending/leaderboard")
+    public ResponseEntity<?> getLeaderboard(@RequestParam(defaultValue = "day") String window,
+                                            @RequestParam(defaultValue = "10") int limit) {
+        TrendingService.Window w;
+        try {
+            w = TrendingService.Window.parse(window);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "window must be one of hour, day, week"));
+        }
+        return ResponseEntity.ok(songService.getLeaderboard(w, limit));
+    }
+
     @GetMapping("/featured")
-    public List<Song> getFeatured() {
-        return songService.getFeatured();
+    public ResponseEntity<?> getFeatured(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int limit) {
+        return CursorResponses.of(() -> songService.getFeatured(cursor, limit));
     }
 
+    // Likes belong to the signed-in user, or to LikeService.GUEST_USER_ID without one
     @GetMapping("/liked")
-    public List<Song> getLiked() {
-        return songService.getLiked();
+    public ResponseEntity<?> getLiked(@SessionAttribute(name = "userId", required = false) Long userId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "50") int limit) {
+        return CursorResponses.of(() -> songService.getLiked(likingUser(userId), cursor, limit));
+    }
+
+    // Liked state for a page of songs in one call: ?ids=3,17,42 returns the liked ones
+    @GetMapping("/likes")
+    public ResponseEntity<?> getLikedAmong(@SessionAttribute(name = "userId", required = false) Long userId,
+                                           @RequestParam List<Long> ids) {
+        if (ids.size() > SongService.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("message",
+                    "at most " + SongService.MAX_PAGE_SIZE + " ids per request"));
+        }
+        return ResponseEntity.ok(songService.getLikedAmong(likingUser(userId), ids));
     }
 
     @GetMapping("/search")
-    public List<Song> search(@RequestParam String q) {
-        return songService.search(q);
+    public CompletableFuture<List<Song>> search(@RequestParam String q,
+                                                @RequestParam(defaultValue = "50") int limit) {
+        return songService.searchAsync(q, limit);
+    }
+
+    // Local catalogue search narrowed by any of genre, artist and album (matched ignoring
+    // case), with facet counts over all the matches; q may be left out to browse by facet
+    @GetMapping("/search/faceted")
+    public ResponseEntity<?> facetedSearch(@RequestParam(required = false) String q,
+                                           @RequestParam(required = false) String genre,
+                                           @RequestParam(required = false) String artist,
+                                           @RequestParam(required = false) String album,
+                                           @RequestParam(defaultValue = "50") int limit) {
+        Map<FacetIndex.Facet, String> filters = new EnumMap<>(FacetIndex.Facet.class);
+        putFilter(filters, FacetIndex.Facet.GENRE, genre);
+        putFilter(filters, FacetIndex.Facet.ARTIST, artist);
+        putFilter(filters, FacetIndex.Facet.ALBUM, album);
+        try {
+            return ResponseEntity.ok(songService.facetedSearch(q, filters, limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/suggest")
+    public List<Suggestion> suggest(@RequestParam String prefix,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        return songService.suggest(prefix, limit);
     }
 
     @GetMapping("/genre/{genre}")
-    public List<Song> getByGenre(@PathVariable String genre) {
-        return songService.getByGenre(genre);
+    public ResponseEntity<?> getByGenre(@PathVariable String genre,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        return CursorResponses.of(() -> songService.getByGenre(genre, cursor, limit));
     }
 
     @GetMapping("/genres")
@@ -58,17 +133,31 @@ public class SongController {
     }
 
     @PutMapping("/{id}/play")
-    public ResponseEntity<Song> incrementPlay(@PathVariable Long id) {
-        Song song = songService.incrementPlays(id);
-        return song != null ? ResponseEntity.ok(song) : ResponseEntity.notFound().build();
+    public ResponseEntity<?> incrementPlay(@PathVariable Long id) {
+        Long plays = songService.incrementPlays(id);
+        if (plays != null) {
+            return ResponseEntity.ok(Map.of("id", id, "plays", plays));
+        }
+        return ResponseEntity.notFound().build();
     }
 
     @PutMapping("/{id}/like")
-    public ResponseEntity<?> toggleLike(@PathVariable Long id) {
-        Song song = songService.toggleLike(id);
-        if (song != null) {
-            return ResponseEntity.ok(Map.of("liked", song.isLiked()));
+    public ResponseEntity<?> toggleLike(@SessionAttribute(name = "userId", required = false) Long userId,
+                                        @PathVariable Long id) {
+        Boolean liked = songService.toggleLike(likingUser(userId), id);
+        if (liked != null) {
+            return ResponseEntity.ok(Map.of("liked", liked));
         }
         return ResponseEntity.notFound().build();
     }
+
+    private static void putFilter(Map<FacetIndex.Facet, String> filters, FacetIndex.Facet facet, String value) {
+        if (value != null && !value.isBlank()) {
+            filters.put(facet, value);
+        }
+    }
+
+    private static long likingUser(Long sessionUserId) {
+        return sessionUserId != null ? sessionUserId : LikeService.GUEST_USER_ID;
+    }
 }
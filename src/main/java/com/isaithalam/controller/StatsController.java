@@ -0,0 +1,65 @@
+package com.isaithalam.controller;
+
+import com.isaithalam.cache.MusicApiCaches;
+import com.isaithalam.media.MediaCache;
+import com.isaithalam.resilience.ProviderCircuitBreakers;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+    private final MusicApiCaches musicApiCaches;
+    private final PoolingHttpClientConnectionManager httpConnectionManager;
+    private final MediaCache mediaCache;
+    private final ProviderCircuitBreakers circuitBreakers;
+
+    public StatsController(MusicApiCaches musicApiCaches, PoolingHttpClientConnectionManager httpConnectionManager,
+                           MediaCache mediaCache, ProviderCircuitBreakers circuitBreakers) {
+        this.musicApiCaches = musicApiCaches;
+        this.httpConnectionManager = httpConnectionManager;
+        this.mediaCache = mediaCache;
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    @GetMapping("/caches")
+    public Map<String, Object> getCacheStats() {
+        return musicApiCaches.stats();
+    }
+
+    @GetMapping("/media")
+    public Map<String, Object> getMediaCacheStats() {
+        return mediaCache.stats();
+    }
+
+    @GetMapping("/providers")
+    public Map<String, Object> getProviderStats() {
+        return circuitBreakers.stats();
+    }
+
+    @GetMapping("/http-pool")
+    public Map<String, Object> getHttpPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(poolStats(httpConnectionManager.getTotalStats()));
+        Map<String, Object> hosts = new LinkedHashMap<>();
+        for (HttpRoute route : httpConnectionManager.getRoutes()) {
+            hosts.put(route.getTargetHost().toURI(), poolStats(httpConnectionManager.getStats(route)));
+        }
+        stats.put("hosts", hosts);
+        return stats;
+    }
+
+    private Map<String, Object> poolStats(PoolStats pool) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leased", pool.getLeased());
+        stats.put("available", pool.getAvailable());
+        stats.put("pending", pool.getPending());
+        stats.put("max", pool.getMax());
+        return stats;
+    }
+}
@@ -0,0 +1,24 @@
+package com.isaithalam.dto;
+
+import com.isaithalam.model.Song;
+
+import java.util.List;
+import java.util.Map;
+
+// The top matching songs, how many songs matched in all, and per facet (genre, artist,
+// album) the values of the matching songs with their counts
+public class FacetedSearchResult {
+    private final List<Song> songs;
+    private final int total;
+    private final Map<String, List<FacetCount>> facets;
+
+    public FacetedSearchResult(List<Song> songs, int total, Map<String, List<FacetCount>> facets) {
+        this.songs = songs;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    public List<Song> getSongs() { return songs; }
+    public int getTotal() { return total; }
+    public Map<String, List<FacetCount>> getFacets() { return facets; }
+}
@@ -0,0 +1,84 @@
+package com.isaithalam.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ImportStatus {
+    private long id;
+    private String name;
+    private String format;
+    private String state;
+    private long bytesTotal;
+    private long bytesRead;
+    private long recordsRead;
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long rejected;
+    private long recordsPerSecond;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+    private List<String> rejections; // The first few, with their line numbers
+
+    public ImportStatus() {}
+
+    public ImportStatus(long id, String name, String format, String state, long bytesTotal, long bytesRead,
+                        long recordsRead, long inserted, long updated, long unchanged, long rejected,
+                        long recordsPerSecond, Instant submittedAt, Instant startedAt, Instant finishedAt,
+                        String error, List<String> rejections) {
+        this.id = id;
+        this.name = name;
+        this.format = format;
+        this.state = state;
+        this.bytesTotal = bytesTotal;
+        this.bytesRead = bytesRead;
+        this.recordsRead = recordsRead;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.rejected = rejected;
+        this.recordsPerSecond = recordsPerSecond;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+        this.rejections = rejections;
+    }
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+    public long getBytesTotal() { return bytesTotal; }
+    public void setBytesTotal(long bytesTotal) { this.bytesTotal = bytesTotal; }
+    public long getBytesRead() { return bytesRead; }
+    public void setBytesRead(long bytesRead) { this.bytesRead = bytesRead; }
+    public long getRecordsRead() { return recordsRead; }
+    public void setRecordsRead(long recordsRead) { this.recordsRead = recordsRead; }
+    public long getInserted() { return inserted; }
+    public void setInserted(long inserted) { this.inserted = inserted; }
+    public long getUpdated() { return updated; }
+    public void setUpdated(long updated) { this.updated = updated; }
+    public long getUnchanged() { return unchanged; }
+    public void setUnchanged(long unchanged) { this.unchanged = unchanged; }
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+    public long getRecordsPerSecond() { return recordsPerSecond; }
+    public void setRecordsPerSecond(long recordsPerSecond) { this.recordsPerSecond = recordsPerSecond; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(Instant submittedAt) { this.submittedAt = submittedAt; }
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public List<String> getRejections() { return rejections; }
+    public void setRejections(List<String> rejections) { this.rejections = rejections; }
+}
@@ -0,0 +1,39 @@
+package com.isaithalam.dto;
+
+public class PlaylistSummary {
+    private Long id;
+    private String name;
+    private String description;
+    private String coverUrl;
+    private Long userId;
+    private long songCount;
+    private Long coverSongId; // First song in playlist order, used for the card artwork
+
+    public PlaylistSummary() {}
+
+    public PlaylistSummary(Long id, String name, String description, String coverUrl, Long userId,
+                           long songCount, Long coverSongId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.coverUrl = coverUrl;
+        this.userId = userId;
+        this.songCount = songCount;
+        this.coverSongId = coverSongId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public String getCoverUrl() { return coverUrl; }
+    public void setCoverUrl(String coverUrl) { this.coverUrl = coverUrl; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public long getSongCount() { return songCount; }
+    public void setSongCount(long songCount) { this.songCount = songCount; }
+    public Long getCoverSongId() { return coverSongId; }
+    public void setCoverSongId(Long coverSongId) { this.coverSongId = coverSongId; }
+}
@@ -0,0 +1,22 @@
+package com.isaithalam.dto;
+
+public class Suggestion {
+    private String text;
+    private String type;
+    private long weight;
+
+    public Suggestion() {}
+
+    public Suggestion(String text, String type, long weight) {
+        this.text = text;
+        this.type = type;
+        this.weight = weight;
+    }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public long getWeight() { return weight; }
+    public void setWeight(long weight) { this.weight = weight; }
+}
@@ -0,0 +1,24 @@
+package com.isaithalam.dto;
+
+import com.isaithalam.model.Song;
+
+public class TrendingEntry {
+    private int rank;
+    private long windowPlays;
+    private Song song;
+
+    public TrendingEntry() {}
+
+    public TrendingEntry(int rank, long windowPlays, Song song) {
+        this.rank = rank;
+        this.windowPlays = windowPlays;
+        this.song = song;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+    public long getWindowPlays() { return windowPlays; }
+    public void setWindowPlays(long windowPlays) { this.windowPlays = windowPlays; }
+    public Song getSong() { return song; }
+    public void setSong(Song song) { this.song = song; }
+}
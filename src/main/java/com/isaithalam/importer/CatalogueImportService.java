@@ -0,0 +1,247 @@
+package com.isaithalam.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isaithalam.model.Song;
+import com.isaithalam.search.CatalogueIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bulk catalogue imports. An upload is spooled to disk first, so the request returns as
+// soon as the bytes are in; one background thread then streams the file through a
+// SongRecordReader and hands CatalogueImporter chunk-size records at a time, so memory
+// stays bounded by the chunk whatever the file size. Jobs run one after another, which
+// also keeps two imports from racing on the same externalId.
+@Service
+public class CatalogueImportService {
+    private static final Logger log = LoggerFactory.getLogger(CatalogueImportService.class);
+
+    private final CatalogueImporter importer;
+    private final List<CatalogueIndex> indexes;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final Path spoolDir;
+    private final int history;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalogue-import");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong jobIds = new AtomicLong();
+    // Guarded by itself; insertion order, oldest first
+    private final Map<Long, ImportJob> jobs = new LinkedHashMap<>();
+    private final Timer chunkTimer;
+    private final Counter insertedRows;
+    private final Counter updatedRows;
+    private final Counter unchangedRows;
+    private final Counter rejectedRows;
+
+    public CatalogueImportService(CatalogueImporter importer, List<CatalogueIndex> indexes, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${isaithalam.import.chunk-size:1000}") int chunkSize,
+                                  @Value("${isaithalam.import.spool-dir:${java.io.tmpdir}/isaithalam-imports}") String spoolDir,
+                                  @Value("${isaithalam.import.history:20}") int history) {
+        this.importer = importer;
+        this.indexes = indexes;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.spoolDir = Paths.get(spoolDir).toAbsolutePath();
+        this.history = history;
+        this.chunkTimer = Timer.builder("isaithalam.import.chunk")
+                .description("Import chunk writes, including catalogue index updates")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.insertedRows = rowCounter(meterRegistry, "inserted");
+        this.updatedRows = rowCounter(meterRegistry, "updated");
+        this.unchangedRows = rowCounter(meterRegistry, "unchanged");
+        this.rejectedRows = rowCounter(meterRegistry, "rejected");
+    }
+
+    private static Counter rowCounter(MeterRegistry registry, String result) {
+        return Counter.builder("isaithalam.import.records")
+                .description("Imported records by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public ImportJob submit(InputStream body, ImportFormat format, String name) throws IOException {
+        Files.createDirectories(spoolDir);
+        Path file = Files.createTempFile(spoolDir, "import-", ".spool");
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        ImportJob job = new ImportJob(jobIds.incrementAndGet(), name, format, Files.size(file));
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            // Forget the oldest finished jobs past the history limit
+            Iterator<ImportJob> oldest = jobs.values().iterator();
+            while (jobs.size() > history && oldest.hasNext()) {
+                if (oldest.next().isFinished()) {
+                    oldest.remove();
+                }
+            }
+        }
+        executor.execute(() -> run(job, file));
+        return job;
+    }
+
+    public ImportJob getJob(long id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    // Most recent first
+    public List<ImportJob> getJobs() {
+        synchronized (jobs) {
+            List<ImportJob> list = new ArrayList<>(jobs.values());
+            Collections.reverse(list);
+            return list;
+        }
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.started();
+        log.info("Import {} started: {} bytes of {}", job.getId(), job.getBytesTotal(), job.getFormat());
+        InputStream counted = null;
+        try {
+            counted = new CountingInputStream(Files.newInputStream(file), job.bytesRead);
+            BufferedReader in = new BufferedReader(new InputStreamReader(counted, StandardCharsets.UTF_8), 65536);
+            try (SongRecordReader reader = SongRecordReader.open(in, job.getFormat(), objectMapper)) {
+                List<Song> chunk = new ArrayList<>(chunkSize);
+                while (true) {
+                    Song record;
+                    try {
+                        record = reader.next();
+                    } catch (InvalidRecordException e) {
+                        job.recordsRead.incrementAndGet();
+                        reject(job, e.getMessage());
+                        continue;
+                    }
+                    if (record == null) {
+                        break;
+                    }
+                    long number = job.recordsRead.incrementAndGet();
+                    String reason = importer.rejectReason(record);
+                    if (reason != null) {
+                        reject(job, "record " + number + ": " + reason);
+                        continue;
+                    }
+                    chunk.add(record);
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(job, chunk);
+                    }
+                }
+                writeChunk(job, chunk);
+            }
+            job.completed();
+            log.info("Import {} completed: {} records, {} inserted, {} updated, {} unchanged, {} rejected",
+                    job.getId(), job.recordsRead.get(), job.inserted.get(), job.updated.get(), job.unchanged.get(),
+                    job.rejected.get());
+        } catch (Exception e) {
+            job.failed(e.getMessage() != null ? e.getMessage() : e.toString());
+            log.warn("Import {} failed after {} records: {}", job.getId(), job.recordsRead.get(), e.toString());
+        } finally {
+            try {
+                if (counted != null) {
+                    counted.close();
+                }
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void reject(ImportJob job, String reason) {
+        job.reject(reason);
+        rejectedRows.increment();
+    }
+
+    private void writeChunk(ImportJob job, List<Song> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        CatalogueImporter.ChunkResult result;
+        try {
+            result = importer.write(Song.CATALOGUE_SOURCE, chunk);
+        } catch (DataIntegrityViolationException e) {
+            // Another writer inserted one of these externalIds after the lookup; the retry sees it
+            result = importer.write(Song.CATALOGUE_SOURCE, chunk);
+        }
+        // Written with plain JDBC, so entity events never see these rows
+        for (CatalogueIndex index : indexes) {
+            index.indexAll(result.getWritten());
+        }
+        chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        job.add(result);
+        insertedRows.increment(result.getInserted());
+        updatedRows.increment(result.getUpdated());
+        unchangedRows.increment(result.getUnchanged());
+        chunk.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Bytes consumed so far, for progress reporting
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.isaithalam.importer;
+
+import com.isaithalam.media.MediaUrlPolicy;
+import com.isaithalam.model.Song;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes one chunk of songs from one source in a single transaction, upserting on
+// (source, externalId): existing rows are looked up in one query, new ones get ids from
+// songs_seq a block at a time, and both go out as JDBC batches. Used by bulk imports
+// (Song.CATALOGUE_SOURCE) and by SongIdentityService for upstream results. Goes around
+// JPA (as PlayCounterService does), so callers push the written songs into the catalogue
+// indexes themselves.
+@Component
+public class CatalogueImporter {
+    static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String INSERT = "INSERT INTO songs (id, source, external_id, title, artist_name, album_name, "
+            + "genre, duration, audio_url, video_url, cover_image_url, plays, featured) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)";
+    private static final String UPDATE = "UPDATE songs SET title = ?, artist_name = ?, album_name = ?, genre = ?, "
+            + "duration = ?, audio_url = ?, video_url = ?, cover_image_url = ? WHERE id = ?";
+
+    public static final class ChunkResult {
+        private final List<Song> written;
+        private final int inserted;
+        private final int updated;
+        private final int unchanged;
+
+        ChunkResult(List<Song> written, int inserted, int updated, int unchanged) {
+            this.written = written;
+            this.inserted = inserted;
+            this.updated = updated;
+            this.unchanged = unchanged;
+        }
+
+        // Inserted and updated songs as now stored, ids and play counts included
+        public List<Song> getWritten() { return written; }
+        public int getInserted() { return inserted; }
+        public int getUpdated() { return updated; }
+        public int getUnchanged() { return unchanged; }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MediaUrlPolicy mediaUrlPolicy;
+
+    public CatalogueImporter(JdbcTemplate jdbcTemplate, MediaUrlPolicy mediaUrlPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mediaUrlPolicy = mediaUrlPolicy;
+    }
+
+    // Why a record cannot be imported, or null if it can. A song may have no audio, but
+    // audio it has must come from a host the media proxy is allowed to fetch.
+    public String rejectReason(Song song) {
+        if (song.getExternalId() == null) {
+            return "missing externalId";
+        }
+        if (song.getTitle() == null) {
+            return "missing title";
+        }
+        for (String text : new String[] {song.getExternalId(), song.getTitle(), song.getArtistName(), song.getAlbumName(),
+                song.getGenre(), song.getAudioUrl(), song.getVideoUrl(), song.getCoverImageUrl()}) {
+            if (text != null && text.length() > MAX_TEXT_LENGTH) {
+                return "field longer than " + MAX_TEXT_LENGTH + " characters";
+            }
+        }
+        if (song.getDuration() < 0 || song.getPlays() < 0) {
+            return "negative duration or plays";
+        }
+        if (song.getAudioUrl() != null && !song.getAudioUrl().isBlank()) {
+            return mediaUrlPolicy.rejectReason(song.getAudioUrl());
+        }
+        return null;
+    }
+
+    // Records must have passed rejectReason. Each distinct record comes back with the id
+    // and play count of its row, whether it was inserted, updated or unchanged.
+    @Transactional
+    public ChunkResult write(String source, List<Song> records) {
+        // A later record for the same externalId is applied on top of the earlier one
+        Map<String, Song> byExternalId = new LinkedHashMap<>();
+        int merged = 0;
+        for (Song record : records) {
+            Song earlier = byExternalId.putIfAbsent(record.getExternalId(), record);
+            if (earlier != null) {
+                mergeInto(earlier, record);
+                merged++;
+            }
+        }
+
+        Map<String, Song> existing = findExisting(source, byExternalId.keySet());
+        List<Song> inserts = new ArrayList<>();
+        List<Song> updates = new ArrayList<>();
+        int unchanged = 0;
+        for (Song record : byExternalId.values()) {
+            record.setSource(source);
+            Song current = existing.get(record.getExternalId());
+            if (current == null) {
+                inserts.add(record);
+                continue;
+            }
+            record.setId(current.getId());
+            record.setPlays(current.getPlays());
+            record.setFeatured(current.isFeatured());
+            if (mergeInto(current, record)) {
+                updates.add(current);
+            } else {
+                unchanged++;
+            }
+        }
+
+        List<Long> ids = allocateIds(inserts.size());
+        List<Object[]> insertArgs = new ArrayList<>(inserts.size());
+        for (int i = 0; i < inserts.size(); i++) {
+            Song song = inserts.get(i);
+            song.setId(ids.get(i));
+            insertArgs.add(new Object[] {song.getId(), source, song.getExternalId(), song.getTitle(), song.getArtistName(),
+                    song.getAlbumName(), song.getGenre(), song.getDuration(), song.getAudioUrl(), song.getVideoUrl(),
+                    song.getCoverImageUrl(), song.getPlays()});
+        }
+        List<Object[]> updateArgs = new ArrayList<>(updates.size());
+        for (Song song : updates) {
+            updateArgs.add(new Object[] {song.getTitle(), song.getArtistName(), song.getAlbumName(), song.getGenre(),
+                    song.getDuration(), song.getAudioUrl(), song.getVideoUrl(), song.getCoverImageUrl(), song.getId()});
+        }
+        if (!insertArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, insertArgs);
+        }
+        if (!updateArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE, updateArgs);
+        }
+
+        List<Song> written = new ArrayList<>(inserts.size() + updates.size());
+        written.addAll(inserts);
+        written.addAll(updates);
+        return new ChunkResult(written, inserts.size(), updates.size() + merged, unchanged);
+    }
+
+    // Copies the record's catalogue fields onto target; fields the record leaves out keep
+    // their value. Play counts and featured flags belong to the app, not the import.
+    // True if anything changed.
+    private static boolean mergeInto(Song target, Song record) {
+        boolean changed = false;
+        if (record.getTitle() != null && !record.getTitle().equals(target.getTitle())) {
+            target.setTitle(record.getTitle());
+            changed = true;
+        }
+        if (record.getArtistName() != null && !record.getArtistName().equals(target.getArtistName())) {
+            target.setArtistName(record.getArtistName());
+            changed = true;
+        }
+        if (record.getAlbumName() != null && !record.getAlbumName().equals(target.getAlbumName())) {
+            target.setAlbumName(record.getAlbumName());
+            changed = true;
+        }
+        if (record.getGenre() != null && !record.getGenre().equals(target.getGenre())) {
+            target.setGenre(record.getGenre());
+            changed = true;
+        }
+        if (record.getDuration() > 0 && record.getDuration() != target.getDuration()) {
+            target.setDuration(record.getDuration());
+            changed = true;
+        }
+        if (record.getAudioUrl() != null && !record.getAudioUrl().equals(target.getAudioUrl())) {
+            target.setAudioUrl(record.getAudioUrl());
+            changed = true;
+        }
+        if (record.getVideoUrl() != null && !record.getVideoUrl().equals(target.getVideoUrl())) {
+            target.setVideoUrl(record.getVideoUrl());
+            changed = true;
+        }
+        if (record.getCoverImageUrl() != null && !record.getCoverImageUrl().equals(target.getCoverImageUrl())) {
+            target.setCoverImageUrl(record.getCoverImageUrl());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private Map<String, Song> findExisting(String source, Iterable<String> externalIds) {
+        List<Object> args = new ArrayList<>();
+        args.add(source);
+        StringBuilder placeholders = new StringBuilder();
+        for (String externalId : externalIds) {
+            placeholders.append(placeholders.isEmpty() ? "?" : ", ?");
+            args.add(externalId);
+        }
+        if (args.size() == 1) {
+            return Map.of();
+        }
+        Map<String, Song> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, external_id, title, artist_name, album_name, genre, duration, audio_url, "
+                        + "video_url, cover_image_url, plays, featured FROM songs WHERE source = ? AND external_id IN ("
+                        + placeholders + ")",
+                rs -> {
+                    Song song = new Song();
+                    song.setId(rs.getLong("id"));
+                    song.setSource(source);
+                    song.setExternalId(rs.getString("external_id"));
+                    song.setTitle(rs.getString("title"));
+                    song.setArtistName(rs.getString("artist_name"));
+                    song.setAlbumName(rs.getString("album_name"));
+                    song.setGenre(rs.getString("genre"));
+                    song.setDuration(rs.getInt("duration"));
+                    song.setAudioUrl(rs.getString("audio_url"));
+                    song.setVideoUrl(rs.getString("video_url"));
+                    song.setCoverImageUrl(rs.getString("cover_image_url"));
+                    song.setPlays(rs.getLong("plays"));
+                    song.setFeatured(rs.getBoolean("featured"));
+                    existing.put(song.getExternalId(), song);
+                },
+                args.toArray());
+        return existing;
+    }
+
+    // Claims whole blocks of songs_seq, each value being the top of an ID_BLOCK_SIZE
+    // block (the same reading Hibernate's pooled optimizer gives it), and hands out the
+    // first count ids; the unused rest of the last block is skipped
+    private List<Long> allocateIds(int count) {
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        int blocks = (count + Song.ID_BLOCK_SIZE - 1) / Song.ID_BLOCK_SIZE;
+        List<Long> tops = jdbcTemplate.queryForList(
+                "SELECT NEXT VALUE FOR songs_seq FROM SYSTEM_RANGE(1, ?)", Long.class, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (long top : tops) {
+            for (long id = top - Song.ID_BLOCK_SIZE + 1; id <= top && ids.size() < count; id++) {
+                if (id > 0) {
+                    ids.add(id);
+                }
+            }
+        }
+        if (ids.size() < count) {
+            throw new IllegalStateException("songs_seq handed out too few ids for " + count + " songs");
+        }
+        return ids;
+    }
+}
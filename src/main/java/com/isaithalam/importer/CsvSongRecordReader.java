@@ -0,0 +1,116 @@
+package com.isaithalam.importer;
+
+import com.isaithalam.model.Song;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 CSV with a header row naming the columns. Quoted fields may contain commas,
+// doubled quotes and line breaks.
+final class CsvSongRecordReader implements SongRecordReader {
+    private final BufferedReader in;
+    // Scanned in bulk rather than through per-character read() calls, which lock the reader
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private final String[] columns;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+
+    CsvSongRecordReader(BufferedReader in) throws IOException {
+        this.in = in;
+        if (!readRow()) {
+            throw new IOException("Empty CSV input, expected a header row");
+        }
+        columns = new String[fields.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = SongRecordFields.normalize(fields.get(i));
+        }
+    }
+
+    @Override
+    public Song next() throws IOException, InvalidRecordException {
+        long start;
+        do {
+            start = line;
+            if (!readRow()) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+        if (fields.size() != columns.length) {
+            throw new InvalidRecordException(start, "expected " + columns.length + " fields, found " + fields.size());
+        }
+        Song song = new Song();
+        for (int i = 0; i < columns.length; i++) {
+            SongRecordFields.set(song, columns[i], fields.get(i), start);
+        }
+        return song;
+    }
+
+    // Reads one row into fields; false at the end of the input
+    private boolean readRow() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        position++;
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    private int read() throws IOException {
+        return peek() == -1 ? -1 : buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,28 @@
+package com.isaithalam.importer;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    JSON_LINES;
+
+    // An explicit ?format= wins over the request's content type
+    public static ImportFormat resolve(String format, String contentType) {
+        if (format != null && !format.isBlank()) {
+            return switch (format.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "jsonl", "ndjson", "json-lines" -> JSON_LINES;
+                default -> throw new IllegalArgumentException("Unknown import format '" + format + "', expected csv or jsonl");
+            };
+        }
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")
+                || type.startsWith("application/json-lines")) {
+            return JSON_LINES;
+        }
+        throw new IllegalArgumentException("Unknown import format: pass ?format=csv|jsonl or send text/csv or application/x-ndjson");
+    }
+}
@@ -0,0 +1,95 @@
+package com.isaithalam.importer;
+
+import com.isaithalam.dto.ImportStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of one import, updated by the import thread and read by status requests
+public class ImportJob {
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private static final int MAX_REJECTIONS_KEPT = 20;
+
+    private final long id;
+    private final String name;
+    private final ImportFormat format;
+    private final long bytesTotal;
+    private final Instant submittedAt = Instant.now();
+    final AtomicLong bytesRead = new AtomicLong();
+    final AtomicLong recordsRead = new AtomicLong();
+    final AtomicLong inserted = new AtomicLong();
+    final AtomicLong updated = new AtomicLong();
+    final AtomicLong unchanged = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+    private final List<String> rejections = new ArrayList<>();
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    ImportJob(long id, String name, ImportFormat format, long bytesTotal) {
+        this.id = id;
+        this.name = name;
+        this.format = format;
+        this.bytesTotal = bytesTotal;
+    }
+
+    public long getId() { return id; }
+    public ImportFormat getFormat() { return format; }
+    public long getBytesTotal() { return bytesTotal; }
+    public State getState() { return state; }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    void started() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    void completed() {
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    void failed(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+    }
+
+    void reject(String reason) {
+        rejected.incrementAndGet();
+        synchronized (rejections) {
+            if (rejections.size() < MAX_REJECTIONS_KEPT) {
+                rejections.add(reason);
+            }
+        }
+    }
+
+    void add(CatalogueImporter.ChunkResult result) {
+        inserted.addAndGet(result.getInserted());
+        updated.addAndGet(result.getUpdated());
+        unchanged.addAndGet(result.getUnchanged());
+    }
+
+    public ImportStatus status() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = start == null ? 0 : Duration.between(start, end).toMillis();
+        long records = recordsRead.get();
+        List<String> kept;
+        synchronized (rejections) {
+            kept = List.copyOf(rejections);
+        }
+        return new ImportStatus(id, name, format.name().toLowerCase(Locale.ROOT), state.name().toLowerCase(Locale.ROOT), bytesTotal,
+                bytesRead.get(), records, inserted.get(), updated.get(), unchanged.get(), rejected.get(),
+                millis > 0 ? records * 1000 / millis : 0, submittedAt, start, finishedAt, error, kept);
+    }
+}
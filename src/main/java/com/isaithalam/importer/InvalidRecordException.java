@@ -0,0 +1,8 @@
+package com.isaithalam.importer;
+
+// One input record that cannot be imported; the job counts it as rejected and moves on
+public class InvalidRecordException extends Exception {
+    public InvalidRecordException(long line, String message) {
+        super("line " + line + ": " + message);
+    }
+}
@@ -0,0 +1,58 @@
+package com.isaithalam.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isaithalam.model.Song;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+// One JSON object per line. Scalar fields are mapped by name; nested values are ignored.
+final class JsonLinesSongRecordReader implements SongRecordReader {
+    private final BufferedReader in;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    JsonLinesSongRecordReader(BufferedReader in, ObjectMapper objectMapper) {
+        this.in = in;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Song next() throws IOException, InvalidRecordException {
+        String text;
+        do {
+            text = in.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRecordException(line, "malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new InvalidRecordException(line, "expected a JSON object");
+        }
+        Song song = new Song();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (field.getValue().isValueNode() && !field.getValue().isNull()) {
+                SongRecordFields.set(song, SongRecordFields.normalize(field.getKey()), field.getValue().asText(), line);
+            }
+        }
+        return song;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,64 @@
+package com.isaithalam.importer;
+
+import com.isaithalam.model.Song;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Maps record fields (CSV header names, JSON keys) onto Song. Names are matched without
+// case or punctuation (a byte order mark included), so external_id, externalId and
+// External-ID are the same field, and a few common provider spellings are accepted.
+// Unknown fields are ignored.
+final class SongRecordFields {
+
+    interface Setter {
+        void set(Song song, String value) throws NumberFormatException;
+    }
+
+    private static final Map<String, Setter> SETTERS = new HashMap<>();
+
+    static {
+        alias(Song::setExternalId, "externalid", "trackid");
+        alias(Song::setTitle, "title", "name", "trackname");
+        alias(Song::setArtistName, "artist", "artistname", "primaryartists");
+        alias(Song::setAlbumName, "album", "albumname", "collectionname");
+        alias(Song::setGenre, "genre", "primarygenrename");
+        alias((song, value) -> song.setDuration(Integer.parseInt(value)), "duration", "durationseconds");
+        alias(Song::setAudioUrl, "audiourl", "previewurl");
+        alias(Song::setVideoUrl, "videourl");
+        alias(Song::setCoverImageUrl, "coverimageurl", "coverurl", "cover", "image", "artworkurl");
+        alias((song, value) -> song.setPlays(Long.parseLong(value)), "plays", "playcount");
+    }
+
+    private SongRecordFields() {}
+
+    private static void alias(Setter setter, String... names) {
+        for (String name : names) {
+            SETTERS.put(name, setter);
+        }
+    }
+
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Blank values leave the field unset
+    static void set(Song song, String normalizedName, String value, long line) throws InvalidRecordException {
+        Setter setter = SETTERS.get(normalizedName);
+        if (setter == null || value == null || value.isBlank()) {
+            return;
+        }
+        try {
+            setter.set(song, value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidRecordException(line, "'" + value + "' is not a valid " + normalizedName);
+        }
+    }
+}
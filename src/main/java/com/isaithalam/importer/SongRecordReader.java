@@ -0,0 +1,24 @@
+package com.isaithalam.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isaithalam.model.Song;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+// Streams songs out of an import file one record at a time, so memory use does not
+// depend on the size of the input
+interface SongRecordReader extends Closeable {
+
+    // Next record, or null at the end of the input. A malformed record throws
+    // InvalidRecordException and the following call continues after it.
+    Song next() throws IOException, InvalidRecordException;
+
+    static SongRecordReader open(BufferedReader in, ImportFormat format, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvSongRecordReader(in);
+            case JSON_LINES -> new JsonLinesSongRecordReader(in, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.isaithalam.media;
+
+// A single satisfiable byte range of a resource, end inclusive as in Content-Range
+public final class ByteRange {
+    private final long start;
+    private final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public long getStart() { return start; }
+    public long getEnd() { return end; }
+    public long getLength() { return end - start + 1; }
+
+    // Parses "bytes=a-b", "bytes=a-" or "bytes=-n". Only the first range of a multi-range
+    // request is honoured (players only ever ask for one). Returns null when the header is
+    // not a byte range at all; throws IllegalArgumentException when it is unsatisfiable.
+    public static ByteRange parse(String header, long length) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length());
+        int comma = spec.indexOf(',');
+        if (comma >= 0) {
+            spec = spec.substring(0, comma);
+        }
+        spec = spec.trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    throw new IllegalArgumentException("Empty suffix range");
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                throw new IllegalArgumentException("Range not satisfiable");
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
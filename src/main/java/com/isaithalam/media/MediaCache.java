@@ -0,0 +1,413 @@
+package com.isaithalam.media;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Bounded on-disk LRU cache of upstream audio, one file per song. The first request
+// for a song starts a download in the background and is served from the partial file
+// as bytes arrive; concurrent requests for the same song read the same download, and
+// later requests are served straight from local disk. Only audio is cached, from URLs
+// MediaUrlPolicy allows, with redirects followed by hand so every hop is vetted.
+@Component
+public class MediaCache {
+
+    private record CachedMedia(Path file, long length, String contentType) {}
+
+    // A song's audio opened for one response: a cached file, or a download in progress
+    // that reads wait on. The channel is opened while the entry is still cached, so an
+    // eviction after that only unlinks the name and the response still reads every byte.
+    public static final class Handle implements Closeable {
+        private final FileChannel channel;
+        private final long length;
+        private final String contentType;
+        // Null once the file is complete
+        private final Download download;
+
+        Handle(FileChannel channel, long length, String contentType, Download download) {
+            this.channel = channel;
+            this.length = length;
+            this.contentType = contentType;
+            this.download = download;
+        }
+
+        public long getLength() { return length; }
+        public String getContentType() { return contentType; }
+
+        public void transferTo(long position, long count, WritableByteChannel out) throws IOException {
+            long remaining = count;
+            while (remaining > 0) {
+                long available = download != null ? download.awaitBytesAfter(position) : length;
+                long sent = channel.transferTo(position, Math.min(remaining, available - position), out);
+                if (sent <= 0) {
+                    throw new IOException("Cached media ended early");
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // One upstream download. The part file is written by the download thread and read by
+    // every response for the song; they wait on progress for bytes not written yet. A
+    // lock rather than synchronized, since readers may be virtual threads.
+    private static final class Download {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition progress = lock.newCondition();
+        // The part file, then the cached file once complete
+        private Path file;
+        private String contentType;
+        // From Content-Length, or once complete; -1 until known
+        private long length = -1;
+        private long written;
+        private boolean complete;
+        private IOException failure;
+
+        void start(Path file, String contentType, long declaredLength) {
+            lock.lock();
+            try {
+                this.file = file;
+                this.contentType = contentType;
+                this.length = declaredLength;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void advance(long bytes) {
+            lock.lock();
+            try {
+                written += bytes;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Moves the part file into place; readers keep their channels on the same file
+        CachedMedia finish(Path target) throws IOException {
+            lock.lock();
+            try {
+                if (length >= 0 && written != length) {
+                    throw new IOException("Upstream sent " + written + " of " + length + " bytes");
+                }
+                Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                file = target;
+                length = written;
+                complete = true;
+                progress.signalAll();
+                return new CachedMedia(file, length, contentType);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void fail(IOException e) {
+            lock.lock();
+            try {
+                failure = e;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Waits until the length is known, so the response can announce it
+        Handle open() throws IOException {
+            lock.lock();
+            try {
+                while (length < 0 && !complete && failure == null) {
+                    progress.await();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                return new Handle(channel, length, contentType, complete ? null : this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for media download", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Returns how many bytes are written, once that is more than position
+        long awaitBytesAfter(long position) throws IOException {
+            lock.lock();
+            try {
+                while (written <= position && !complete && failure == null) {
+                    progress.await();
+                }
+                if (written > position) {
+                    return written;
+                }
+                throw failure != null ? failure : new IOException("Cached media ended early");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for media download", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final int MAX_REDIRECTS = 3;
+
+    private final RestTemplate restTemplate;
+    private final MediaUrlPolicy urlPolicy;
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxFileBytes;
+    private final ThreadPoolExecutor downloadExecutor;
+
+    // Guarded by itself; access order makes iteration start at the least recently used
+    private final LinkedHashMap<Long, CachedMedia> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+    private final Map<Long, Download> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong fetchFailures = new AtomicLong();
+
+    public MediaCache(@Qualifier("mediaRestTemplate") RestTemplate restTemplate, MediaUrlPolicy urlPolicy,
+                      @Value("${isaithalam.media.cache-dir:${java.io.tmpdir}/isaithalam-media}") String directory,
+                      @Value("${isaithalam.media.max-bytes:1073741824}") long maxBytes,
+                      @Value("${isaithalam.media.max-file-bytes:52428800}") long maxFileBytes,
+                      @Value("${isaithalam.media.max-downloads:16}") int maxDownloads) throws IOException {
+        this.restTemplate = restTemplate;
+        this.urlPolicy = urlPolicy;
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.maxFileBytes = maxFileBytes;
+        // No queue: past max-downloads a miss fails at once and the player is redirected
+        AtomicInteger threadCount = new AtomicInteger();
+        this.downloadExecutor = new ThreadPoolExecutor(0, maxDownloads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "media-download-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        Files.createDirectories(this.directory);
+        // Nothing on disk is indexed yet, so leftovers from a previous run would only leak space
+        try (Stream<Path> leftovers = Files.list(this.directory)) {
+            leftovers.filter(path -> path.toString().endsWith(".media") || path.toString().endsWith(".part"))
+                    .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    public Handle open(Long songId, String upstreamUrl) throws IOException {
+        Handle cached = openCached(songId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        Download download = new Download();
+        Download existing = inFlight.putIfAbsent(songId, download);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing.open();
+        }
+        // A download may have finished between the lookup and claiming the slot
+        cached = openCached(songId);
+        if (cached != null) {
+            inFlight.remove(songId, download);
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        try {
+            downloadExecutor.execute(() -> download(songId, upstreamUrl, download));
+        } catch (RejectedExecutionException e) {
+            IOException failure = new IOException("Too many media downloads in progress", e);
+            fetchFailures.incrementAndGet();
+            download.fail(failure);
+            inFlight.remove(songId, download);
+            throw failure;
+        }
+        return download.open();
+    }
+
+    public long hitCount() { return hits.get(); }
+    public long missCount() { return misses.get(); }
+    public long fetchFailureCount() { return fetchFailures.get(); }
+
+    public long totalBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("files", entries.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("evictions", evictions.get());
+        stats.put("fetchFailures", fetchFailures.get());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    private Handle openCached(Long songId) throws IOException {
+        synchronized (entries) {
+            CachedMedia media = entries.get(songId);
+            if (media == null) {
+                return null;
+            }
+            if (!Files.exists(media.file())) {
+                entries.remove(songId);
+                totalBytes -= media.length();
+                return null;
+            }
+            return new Handle(FileChannel.open(media.file(), StandardOpenOption.READ),
+                    media.length(), media.contentType(), null);
+        }
+    }
+
+    private void download(Long songId, String upstreamUrl, Download download) {
+        try {
+            CachedMedia media = fetch(songId, upstreamUrl, download);
+            store(songId, media);
+        } catch (IOException | RuntimeException e) {
+            fetchFailures.incrementAndGet();
+            download.fail(e instanceof IOException io ? io : new IOException(e.getMessage(), e));
+        } finally {
+            // After store, so a request arriving now finds the cached file
+            inFlight.remove(songId, download);
+        }
+    }
+
+    private CachedMedia fetch(Long songId, String upstreamUrl, Download download) throws IOException {
+        URI uri;
+        try {
+            uri = URI.create(upstreamUrl.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unsupported media URL: " + upstreamUrl, e);
+        }
+        Path temp = Files.createTempFile(directory, songId + "-", ".part");
+        try {
+            for (int hop = 0; ; hop++) {
+                urlPolicy.checkFetchable(uri);
+                URI redirect = restTemplate.execute(uri, HttpMethod.GET, null, response -> {
+                    if (response.getStatusCode().is3xxRedirection()) {
+                        URI location = response.getHeaders().getLocation();
+                        if (location == null) {
+                            throw new IOException("Redirect without a Location header");
+                        }
+                        return location;
+                    }
+                    MediaType type = response.getHeaders().getContentType();
+                    if (type == null || !"audio".equalsIgnoreCase(type.getType())) {
+                        throw new IOException("Not audio: " + type);
+                    }
+                    long declared = response.getHeaders().getContentLength();
+                    if (declared > maxFileBytes) {
+                        throw new IOException("Media too large to cache: " + declared + " bytes");
+                    }
+                    download.start(temp, type.toString(), declared);
+                    try (InputStream in = response.getBody(); OutputStream out = Files.newOutputStream(temp)) {
+                        copyLimited(in, out, download);
+                    }
+                    return null;
+                });
+                if (redirect == null) {
+                    return download.finish(directory.resolve(songId + ".media"));
+                }
+                if (hop == MAX_REDIRECTS) {
+                    throw new IOException("Too many redirects fetching " + upstreamUrl);
+                }
+                uri = uri.resolve(redirect);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void copyLimited(InputStream in, OutputStream out, Download download) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long copied = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            copied += n;
+            if (copied > maxFileBytes) {
+                throw new IOException("Media too large to cache: over " + maxFileBytes + " bytes");
+            }
+            // Unbuffered, so readers of the part file see these bytes once advance() returns
+            out.write(buffer, 0, n);
+            download.advance(n);
+        }
+    }
+
+    private void store(Long songId, CachedMedia media) {
+        synchronized (entries) {
+            CachedMedia previous = entries.put(songId, media);
+            if (previous != null) {
+                totalBytes -= previous.length();
+            }
+            totalBytes += media.length();
+            Iterator<Map.Entry<Long, CachedMedia>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<Long, CachedMedia> eldest = it.next();
+                if (eldest.getKey().equals(songId)) {
+                    continue;
+                }
+                it.remove();
+                totalBytes -= eldest.getValue().length();
+                evictions.incrementAndGet();
+                // Responses serving this file opened it under this lock and keep reading it
+                eldest.getValue().file().toFile().delete();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        downloadExecutor.shutdownNow();
+    }
+}
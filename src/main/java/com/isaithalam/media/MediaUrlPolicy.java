@@ -0,0 +1,82 @@
+package com.isaithalam.media;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Which audio URLs the server fetches on a listener's behalf. Song rows can hold any URL,
+// so /media/{id} would otherwise fetch internal addresses for whoever gets a row stored.
+// A URL must be http(s) on an allowed host or one of its subdomains, and that host must
+// not resolve to a loopback, link-local, private or otherwise non-public address. The
+// address check is made by PublicAddressDnsResolver when the media client connects.
+@Component
+public class MediaUrlPolicy {
+    private final List<String> allowedHosts = new ArrayList<>();
+
+    public MediaUrlPolicy(@Value("${isaithalam.media.allowed-hosts:soundhelix.com,saavncdn.com,jiosaavn.com,"
+                                  + "itunes.apple.com,mzstatic.com}") String[] allowedHosts) {
+        for (String host : allowedHosts) {
+            if (!host.isBlank()) {
+                this.allowedHosts.add(host.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    public static boolean isHttpUrl(String url) {
+        if (url == null) {
+            return false;
+        }
+        try {
+            URI uri = URI.create(url.trim());
+            return ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+                    && uri.getHost() != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Null if the URL is http(s) on an allowed host, otherwise why not. No DNS lookup.
+    public String rejectReason(String url) {
+        if (!isHttpUrl(url)) {
+            return "audio URL must be an absolute http(s) URL";
+        }
+        String host = URI.create(url.trim()).getHost().toLowerCase(Locale.ROOT);
+        for (String allowed : allowedHosts) {
+            if (host.equals(allowed) || host.endsWith("." + allowed)) {
+                return null;
+            }
+        }
+        return "audio host " + host + " is not allowed";
+    }
+
+    // Throws unless the URL is allowed. Its addresses are checked on connect, see above.
+    public void checkFetchable(URI uri) throws IOException {
+        String reason = rejectReason(uri.toString());
+        if (reason != null) {
+            throw new IOException("Refusing to fetch " + uri + ": " + reason);
+        }
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // fc00::/7 unique local
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        int first = bytes[0] & 0xff;
+        int second = bytes[1] & 0xff;
+        // 0.0.0.0/8 and 100.64.0.0/10 (carrier-grade NAT)
+        return first != 0 && !(first == 100 && second >= 64 && second < 128);
+    }
+}
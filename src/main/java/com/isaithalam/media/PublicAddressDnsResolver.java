@@ -0,0 +1,40 @@
+package com.isaithalam.media;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+// Resolver for the media client's connection pool. Vetting addresses here, on the lookup
+// the connection is actually made with, leaves no window for a host to resolve to a
+// public address when checked and a private one when connected to (DNS rebinding).
+// A host with any non-public address is refused outright, as MediaUrlPolicy does.
+public class PublicAddressDnsResolver implements DnsResolver {
+    private final DnsResolver delegate;
+
+    public PublicAddressDnsResolver() {
+        this(SystemDefaultDnsResolver.INSTANCE);
+    }
+
+    PublicAddressDnsResolver(DnsResolver delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        InetAddress[] addresses = delegate.resolve(host);
+        for (InetAddress address : addresses) {
+            if (!MediaUrlPolicy.isPublic(address)) {
+                throw new UnknownHostException("Refusing to connect to " + host
+                        + ": it resolves to non-public address " + address.getHostAddress());
+            }
+        }
+        return addresses;
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+}
@@ -1,8 +1,6 @@
 package com.isaithalam.model;
 
 import jakarta.persistence.*;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity
 @Table(name = "playlists")
@@ -16,14 +14,6 @@ public class Playlist {
     private String coverUrl;
     private String description;
 
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(
-        name = "playlist_songs",
-        joinColumns = @JoinColumn(name = "playlist_id"),
-        inverseJoinColumns = @JoinColumn(name = "song_id")
-    )
-    private List<Song> songs = new ArrayList<>();
-
     public Playlist() {}
 
     public Long getId() { return id; }
@@ -36,6 +26,4 @@ public class Playlist {
     public void setCoverUrl(String coverUrl) { this.coverUrl = coverUrl; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
-    public List<Song> getSongs() { return songs; }
-    public void setSongs(List<Song> songs) { this.songs = songs; }
 }
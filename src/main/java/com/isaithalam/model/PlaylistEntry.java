@@ -0,0 +1,41 @@
+package com.isaithalam.model;
+
+import jakarta.persistence.*;
+
+// One song in one playlist. Order comes from a sparse position column (gaps of
+// PlaylistService.POSITION_GAP), so inserting or moving a song rewrites a single row.
+@Entity
+@Table(name = "playlist_songs",
+       uniqueConstraints = @UniqueConstraint(name = "uk_playlist_song", columnNames = {"playlist_id", "song_id"}),
+       indexes = @Index(name = "idx_playlist_position", columnList = "playlist_id, position"))
+public class PlaylistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "playlist_id", nullable = false)
+    private Long playlistId;
+
+    @Column(name = "song_id", nullable = false)
+    private Long songId;
+
+    @Column(nullable = false)
+    private long position;
+
+    public PlaylistEntry() {}
+
+    public PlaylistEntry(Long playlistId, Long songId, long position) {
+        this.playlistId = playlistId;
+        this.songId = songId;
+        this.position = position;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getPlaylistId() { return playlistId; }
+    public void setPlaylistId(Long playlistId) { this.playlistId = playlistId; }
+    public Long getSongId() { return songId; }
+    public void setSongId(Long songId) { this.songId = songId; }
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+}
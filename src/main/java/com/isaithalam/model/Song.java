@@ -1,12 +1,30 @@
 package com.isaithalam.model;
 
+import com.isaithalam.search.SongIndexListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "songs")
+@Table(name = "songs",
+       uniqueConstraints = @UniqueConstraint(name = "uk_songs_source_external_id",
+                                          columnNames = {"source", "external_id"}),
+       indexes = {
+               // Keyset pages of the featured list walk this in id order
+               @Index(name = "idx_songs_featured", columnList = "featured, id")
+       })
+@EntityListeners(SongIndexListener.class)
 public class Song {
+    // Ids come from songs_seq in blocks of ID_BLOCK_SIZE: Hibernate treats each sequence
+    // value as the top of its block (pooled optimizer), so saves are JDBC-batched, and
+    // CatalogueImporter claims blocks from the same sequence the same way
+    public static final int ID_BLOCK_SIZE = 50;
+    // Source of seed and bulk-imported songs; songs materialized from an upstream provider
+    // carry the provider's name instead (see SongIdentityService)
+    public static final String CATALOGUE_SOURCE = "catalogue";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "songs_seq")
+    @SequenceGenerator(name = "songs_seq", sequenceName = "songs_seq", allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
     private String title;
@@ -17,13 +35,35 @@ public class Song {
     private String audioUrl;
     private String videoUrl;
     private String coverImageUrl;
-    private long plays;
-    private boolean liked;
+    @Column(updatable = false)
+    private long plays; // Incremented in SQL by PlayCounterService, never by entity saves
     private boolean featured;
-    private String externalId; // For JioSaavn/YouTube IDs
+    @Column(nullable = false, length = 32)
+    @ColumnDefault("'" + CATALOGUE_SOURCE + "'")
+    private String source = CATALOGUE_SOURCE;
+    private String externalId; // For JioSaavn/YouTube IDs, unique per source
 
     public Song() {}
 
+    // Detached field-by-field copy, for handing out songs that callers may modify
+    public static Song copyOf(Song other) {
+        Song song = new Song();
+        song.id = other.id;
+        song.title = other.title;
+        song.artistName = other.artistName;
+        song.albumName = other.albumName;
+        song.genre = other.genre;
+        song.duration = other.duration;
+        song.audioUrl = other.audioUrl;
+        song.videoUrl = other.videoUrl;
+        song.coverImageUrl = other.coverImageUrl;
+        song.plays = other.plays;
+        song.featured = other.featured;
+        song.source = other.source;
+        song.externalId = other.externalId;
+        return song;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getTitle() { return title; }
@@ -44,10 +84,10 @@ public class Song {
     public void setCoverImageUrl(String coverImageUrl) { this.coverImageUrl = coverImageUrl; }
     public long getPlays() { return plays; }
     public void setPlays(long plays) { this.plays = plays; }
-    public boolean isLiked() { return liked; }
-    public void setLiked(boolean liked) { this.liked = liked; }
     public boolean isFeatured() { return featured; }
     public void setFeatured(boolean featured) { this.featured = featured; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
     public String getExternalId() { return externalId; }
     public void setExternalId(String externalId) { this.externalId = externalId; }
 }
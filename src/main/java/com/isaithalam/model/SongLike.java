@@ -0,0 +1,42 @@
+package com.isaithalam.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// One user's like of one song. LikeService keeps each active user's liked song ids in
+// memory, so this table is only read when a user's set is first needed.
+@Entity
+@Table(name = "song_likes",
+       uniqueConstraints = @UniqueConstraint(name = "uk_song_likes_user_song", columnNames = {"user_id", "song_id"}))
+public class SongLike {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "song_id", nullable = false)
+    private Long songId;
+
+    @Column(name = "liked_at", nullable = false)
+    private Instant likedAt;
+
+    public SongLike() {}
+
+    public SongLike(Long userId, Long songId, Instant likedAt) {
+        this.userId = userId;
+        this.songId = songId;
+        this.likedAt = likedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getSongId() { return songId; }
+    public void setSongId(Long songId) { this.songId = songId; }
+    public Instant getLikedAt() { return likedAt; }
+    public void setLikedAt(Instant likedAt) { this.likedAt = likedAt; }
+}
@@ -0,0 +1,75 @@
+package com.isaithalam.provider;
+
+import com.isaithalam.model.Song;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Shared plumbing for providers reached over HTTP: the same URI template is executed on
+// the pooled RestTemplate in blocking mode or on the WebClient in reactive mode, and the
+// body is mapped by SongJsonReader either way.
+public abstract class HttpMusicProvider implements MusicProvider {
+
+    protected interface BodyReader {
+        List<Song> read(InputStream in) throws IOException;
+    }
+
+    private final RestTemplate restTemplate;
+    // Null unless isaithalam.execution.mode=reactive
+    private final WebClient webClient;
+    private final String userAgent;
+
+    protected HttpMusicProvider(RestTemplate restTemplate, WebClient webClient, String userAgent) {
+        this.restTemplate = restTemplate;
+        this.webClient = webClient;
+        this.userAgent = userAgent;
+    }
+
+    // URI variables are encoded by the client. Responses are mapped straight off the
+    // connection stream.
+    protected List<Song> get(String uriTemplate, BodyReader reader, Object uriVariable) {
+        List<Song> songs = restTemplate.execute(uriTemplate, HttpMethod.GET,
+                request -> {
+                    if (userAgent != null) {
+                        request.getHeaders().set(HttpHeaders.USER_AGENT, userAgent);
+                    }
+                },
+                response -> reader.read(response.getBody()), uriVariable);
+        return songs != null ? List.copyOf(songs) : List.of();
+    }
+
+    // The body is collected as raw buffers and parsed once complete; parsing is cheap
+    // next to the network wait, so it runs on the I/O thread that received the bytes
+    protected Mono<List<Song>> getAsync(String uriTemplate, BodyReader reader, Object uriVariable) {
+        if (webClient == null) {
+            return Mono.error(new IllegalStateException("No WebClient outside reactive execution mode"));
+        }
+        return webClient.get()
+                .uri(uriTemplate, uriVariable)
+                .headers(headers -> {
+                    if (userAgent != null) {
+                        headers.set(HttpHeaders.USER_AGENT, userAgent);
+                    }
+                })
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(DataBufferUtils::join)
+                .map(buffer -> {
+                    try (InputStream in = buffer.asInputStream(true)) {
+                        return List.copyOf(reader.read(in));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .defaultIfEmpty(List.of());
+    }
+}
@@ -0,0 +1,49 @@
+package com.isaithalam.provider;
+
+import com.isaithalam.model.Song;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// iTunes Search API: song search and track lookup by id (30 second previews only)
+public class ItunesProvider extends HttpMusicProvider implements TrackLookup {
+    private final String searchUrl;
+    private final String lookupUrl;
+    private final SongJsonReader songJsonReader;
+
+    public ItunesProvider(String baseUrl, RestTemplate restTemplate, WebClient webClient, SongJsonReader songJsonReader) {
+        super(restTemplate, webClient, null);
+        this.searchUrl = baseUrl + "/search?term={term}&entity=song&limit=10";
+        this.lookupUrl = baseUrl + "/lookup?id={id}";
+        this.songJsonReader = songJsonReader;
+    }
+
+    @Override
+    public String getName() {
+        return "itunes";
+    }
+
+    @Override
+    public List<Song> search(String query) {
+        return get(searchUrl, songJsonReader::readItunesResults, query);
+    }
+
+    @Override
+    public Mono<List<Song>> searchAsync(String query) {
+        return getAsync(searchUrl, songJsonReader::readItunesResults, query);
+    }
+
+    @Override
+    public Song lookup(Long id) {
+        List<Song> results = get(lookupUrl, songJsonReader::readItunesResults, id);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    @Override
+    public Mono<Song> lookupAsync(Long id) {
+        return getAsync(lookupUrl, songJsonReader::readItunesResults, id)
+                .flatMap(results -> results.isEmpty() ? Mono.empty() : Mono.just(results.get(0)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.isaithalam.provider;
+
+import com.isaithalam.model.Song;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Times every upstream call of the wrapped provider, blocking or reactive, as
+// isaithalam.upstream.calls{provider, operation, outcome} and counts failures by
+// exception type in isaithalam.upstream.errors. Sits directly around the provider, so
+// cache hits and calls rejected by an open circuit breaker are not counted.
+public class MeteredMusicProvider implements MusicProvider {
+
+    interface Call<T> {
+        T call() throws Exception;
+    }
+
+    private final MusicProvider delegate;
+    private final MeterRegistry registry;
+
+    public MeteredMusicProvider(MusicProvider delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public List<Song> search(String query) throws Exception {
+        return timed("search", () -> delegate.search(query));
+    }
+
+    @Override
+    public Mono<List<Song>> searchAsync(String query) {
+        return timedAsync("search", Mono.defer(() -> delegate.searchAsync(query)));
+    }
+
+    <T> T timed(String operation, Call<T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            record(operation, start, null);
+            return result;
+        } catch (Exception e) {
+            record(operation, start, e);
+            throw e;
+        }
+    }
+
+    <T> Mono<T> timedAsync(String operation, Mono<T> call) {
+        return Mono.fromSupplier(System::nanoTime)
+                .flatMap(start -> call
+                        .doOnSuccess(result -> record(operation, start, null))
+                        .doOnError(e -> record(operation, start, e))
+                        .doOnCancel(() -> timer(operation, "cancelled")
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS)));
+    }
+
+    private void record(String operation, long start, Throwable error) {
+        timer(operation, error == null ? "success" : "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (error != null) {
+            Counter.builder("isaithalam.upstream.errors")
+                    .description("Failed upstream calls by exception type")
+                    .tag("provider", delegate.getName())
+                    .tag("operation", operation)
+                    .tag("exception", error.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("isaithalam.upstream.calls")
+                .description("Upstream provider call latency")
+                .tag("provider", delegate.getName())
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.isaithalam.provider;
+
+import com.isaithalam.model.Song;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+// MeteredMusicProvider for a provider that also looks tracks up; lookups are recorded
+// under operation=lookup.
+public class MeteredTrackLookup extends MeteredMusicProvider implements TrackLookup {
+
+    private final TrackLookup delegate;
+
+    public MeteredTrackLookup(TrackLookup delegate, MeterRegistry registry) {
+        super(delegate, registry);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Song lookup(Long id) throws Exception {
+        return timed("lookup", () -> delegate.lookup(id));
+    }
+
+    @Override
+    public Mono<Song> lookupAsync(Long id) {
+        return timedAsync("lookup", Mono.defer(() -> delegate.lookupAsync(id)));
+    }
+}
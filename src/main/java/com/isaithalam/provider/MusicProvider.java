@@ -0,0 +1,19 @@
+package com.isaithalam.provider;
+
+import com.isaithalam.model.Song;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// An upstream music catalogue. Each call is one uncached request to the source; caching,
+// circuit breaking and fallback between providers are layered on top by MusicApiService
+// and ReactiveMusicApiService. Failures propagate so callers can tell "failed" from
+// "no results".
+public interface MusicProvider {
+    String getName();
+
+    List<Song> search(String query) throws Exception;
+
+    // Only required in reactive execution mode
+    Mono<List<Song>> searchAsync(String query);
+}
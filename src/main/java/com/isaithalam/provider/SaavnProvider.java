@@ -0,0 +1,37 @@
+package com.isaithalam.provider;
+
+import com.isaithalam.model.Song;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// saavn.me search. The API rejects requests without a browser-like User-Agent.
+public class SaavnProvider extends HttpMusicProvider {
+    static final String BROWSER_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private final String searchUrl;
+    private final SongJsonReader songJsonReader;
+
+    public SaavnProvider(String baseUrl, RestTemplate restTemplate, WebClient webClient, SongJsonReader songJsonReader) {
+        super(restTemplate, webClient, BROWSER_USER_AGENT);
+        this.searchUrl = baseUrl + "/search/songs?query={query}";
+        this.songJsonReader = songJsonReader;
+    }
+
+    @Override
+    public String getName() {
+        return "saavn";
+    }
+
+    @Override
+    public List<Song> search(String query) {
+        return get(searchUrl, songJsonReader::readSaavnResults, query);
+    }
+
+    @Override
+    public Mono<List<Song>> searchAsync(String query) {
+        return getAsync(searchUrl, songJsonReader::readSaavnResults, query);
+    }
+}
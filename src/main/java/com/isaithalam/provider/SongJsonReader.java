@@ -0,0 +1,315 @@
+package com.isaithalam.provider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isaithalam.model.Song;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Maps upstream search responses straight from the response stream into Song objects,
+// one token at a time, instead of building a JsonNode tree first. Unknown fields are
+// skipped without being materialized. Songs carry the provider's id as externalId but no
+// local id; SongIdentityService assigns those.
+@Component
+public class SongJsonReader {
+    private final JsonFactory jsonFactory;
+
+    public SongJsonReader(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    // Saavn: { "data": { "results": [ {song}, ... ] } }
+    public List<Song> readSaavnResults(InputStream in) throws IOException {
+        List<Song> songs = new ArrayList<>();
+        try (JsonParser p = jsonFactory.createParser(in)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return songs;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                JsonToken value = p.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String dataField = p.getCurrentName();
+                        JsonToken dataValue = p.nextToken();
+                        if ("results".equals(dataField) && dataValue == JsonToken.START_ARRAY) {
+                            while (p.nextToken() != JsonToken.END_ARRAY) {
+                                if (p.currentToken() == JsonToken.START_OBJECT) {
+                                    Song song = readSaavnSong(p);
+                                    if (song != null) {
+                                        songs.add(song);
+                                    }
+                                } else {
+                                    p.skipChildren();
+                                }
+                            }
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        return songs;
+    }
+
+    // iTunes search and lookup: { "results": [ {track}, ... ] }
+    public List<Song> readItunesResults(InputStream in) throws IOException {
+        List<Song> songs = new ArrayList<>();
+        try (JsonParser p = jsonFactory.createParser(in)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return songs;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                JsonToken value = p.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        if (p.currentToken() == JsonToken.START_OBJECT) {
+                            Song song = readItunesSong(p);
+                            if (song != null) {
+                                songs.add(song);
+                            }
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        return songs;
+    }
+
+    // Parser is positioned on the song's START_OBJECT
+    private Song readSaavnSong(JsonParser p) throws IOException {
+        String id = "";
+        String title = "";
+        String primaryArtists = null;
+        String firstPrimaryArtist = null;
+        boolean hasArtists = false;
+        String album = "";
+        int duration = 0;
+        String cover = "";
+        String downloadUrl = null;
+        String url = null;
+        String language = "";
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "id" -> id = scalarText(p);
+                case "name" -> title = scalarText(p);
+                case "primaryArtists" -> primaryArtists = scalarText(p);
+                case "artists" -> {
+                    hasArtists = true;
+                    firstPrimaryArtist = readFirstPrimaryArtist(p);
+                }
+                case "album" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        album = readNameField(p);
+                    } else {
+                        album = scalarText(p);
+                    }
+                }
+                case "duration" -> duration = value.isScalarValue() ? p.getValueAsInt(0) : skipZero(p);
+                case "image" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        cover = readLastLink(p);
+                    } else if (value == JsonToken.VALUE_STRING) {
+                        cover = p.getText();
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                case "downloadUrl" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        downloadUrl = readLastLink(p);
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                case "url" -> url = scalarText(p);
+                case "language" -> language = scalarText(p);
+                default -> p.skipChildren();
+            }
+        }
+
+        // Without a Saavn id the song could never be found again
+        if (id.isEmpty()) {
+            return null;
+        }
+        Song song = new Song();
+        song.setExternalId(id);
+        song.setTitle(title);
+
+        if (primaryArtists != null) {
+            song.setArtistName(primaryArtists);
+        } else if (hasArtists && firstPrimaryArtist != null) {
+            song.setArtistName(firstPrimaryArtist);
+        } else {
+            song.setArtistName("Unknown Artist");
+        }
+
+        song.setAlbumName(album);
+        song.setDuration(duration);
+        song.setCoverImageUrl(cover);
+
+        song.setAudioUrl("");
+        if (downloadUrl != null) {
+            song.setAudioUrl(downloadUrl);
+        } else if (url != null && (url.endsWith(".mp3") || url.endsWith(".m4a"))) {
+            song.setAudioUrl(url);
+        }
+
+        // Saavn has no genres; its language ("tamil", "hindi", ...) is the closest grouping
+        language = language.trim();
+        song.setGenre(language.isEmpty() ? "Global"
+                : language.substring(0, 1).toUpperCase(Locale.ROOT) + language.substring(1));
+        song.setPlays(1000 + (long) (Math.random() * 50000));
+        song.setFeatured(false);
+        return song;
+    }
+
+    private Song readItunesSong(JsonParser p) throws IOException {
+        Long trackId = null;
+        String trackName = "";
+        String artistName = "";
+        String collectionName = "";
+        int trackTimeMillis = 0;
+        String artwork = "";
+        String previewUrl = "";
+        String genre = "";
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "trackId" -> trackId = value.isNumeric() ? p.getLongValue() : null;
+                case "trackName" -> trackName = scalarText(p);
+                case "artistName" -> artistName = scalarText(p);
+                case "collectionName" -> collectionName = scalarText(p);
+                case "trackTimeMillis" -> trackTimeMillis = value.isScalarValue() ? p.getValueAsInt(0) : skipZero(p);
+                case "artworkUrl100" -> artwork = scalarText(p);
+                case "previewUrl" -> previewUrl = scalarText(p);
+                case "primaryGenreName" -> genre = scalarText(p);
+                default -> p.skipChildren();
+            }
+        }
+
+        if (trackId == null) {
+            return null;
+        }
+        Song song = new Song();
+        song.setExternalId(String.valueOf(trackId));
+        song.setTitle(trackName + " (Preview)"); // Mark as preview
+        song.setArtistName(artistName);
+        song.setAlbumName(collectionName);
+        song.setDuration(trackTimeMillis / 1000);
+        song.setCoverImageUrl(artwork.replace("100x100", "600x600")); // Get higher res
+        song.setAudioUrl(previewUrl);
+        song.setGenre(genre);
+        song.setPlays(1000 + (long) (Math.random() * 10000));
+        song.setFeatured(false);
+        return song;
+    }
+
+    // "artists": { "primary": [ { "name": ... }, ... ] }
+    private String readFirstPrimaryArtist(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        String first = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            if ("primary".equals(field) && value == JsonToken.START_ARRAY) {
+                boolean seenFirst = false;
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    if (!seenFirst && p.currentToken() == JsonToken.START_OBJECT) {
+                        first = readNameField(p);
+                    } else {
+                        p.skipChildren();
+                    }
+                    seenFirst = true;
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        return first;
+    }
+
+    private String readNameField(JsonParser p) throws IOException {
+        String name = "";
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            p.nextToken();
+            if ("name".equals(field)) {
+                name = scalarText(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    // Last element of an image/downloadUrl array: an object with "url" or "link", or a plain string
+    private String readLastLink(JsonParser p) throws IOException {
+        String last = "";
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                String url = null;
+                String link = null;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.getCurrentName();
+                    p.nextToken();
+                    if ("url".equals(field)) {
+                        url = scalarText(p);
+                    } else if ("link".equals(field)) {
+                        link = scalarText(p);
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                last = url != null ? url : link != null ? link : "";
+            } else if (token == JsonToken.VALUE_STRING) {
+                last = p.getText();
+            } else {
+                p.skipChildren();
+                last = "";
+            }
+        }
+        return last;
+    }
+
+    private String scalarText(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return "";
+        }
+        if (token.isScalarValue()) {
+            return p.getText();
+        }
+        p.skipChildren();
+        return "";
+    }
+
+    private int skipZero(JsonParser p) throws IOException {
+        p.skipChildren();
+        return 0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.isaithalam.provider;
+
+import com.isaithalam.model.Song;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// In-process stand-in for an upstream provider, for offline load tests and benchmarks.
+// It replays recorded response bodies (Saavn or iTunes shaped, detected per file) through
+// the real SongJsonReader, after an injected delay and with an injected failure rate. A
+// query always maps to the same recording, so caching behaves as it would live.
+public class StubMusicProvider implements TrackLookup {
+    private static final Logger log = LoggerFactory.getLogger(StubMusicProvider.class);
+
+    private record Recording(String name, byte[] body, boolean saavnFormat) {}
+
+    private final String name;
+    private final SongJsonReader songJsonReader;
+    private final List<Recording> recordings = new ArrayList<>();
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+
+    public StubMusicProvider(String name, Resource[] payloads, SongJsonReader songJsonReader,
+                             long latencyMs, long jitterMs, double errorRate) throws IOException {
+        this.name = name;
+        this.songJsonReader = songJsonReader;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        for (Resource payload : payloads) {
+            byte[] body;
+            try (InputStream in = payload.getInputStream()) {
+                body = in.readAllBytes();
+            }
+            // Jackson detects UTF-8 and UTF-16 bodies (with or without BOM) on its own
+            if (!songJsonReader.readSaavnResults(new ByteArrayInputStream(body)).isEmpty()) {
+                recordings.add(new Recording(payload.getFilename(), body, true));
+            } else if (!songJsonReader.readItunesResults(new ByteArrayInputStream(body)).isEmpty()) {
+                recordings.add(new Recording(payload.getFilename(), body, false));
+            } else {
+                log.warn("Stub provider '{}' skipped {}: no songs found", name, payload.getFilename());
+            }
+        }
+        if (recordings.isEmpty()) {
+            throw new IllegalStateException("Stub provider '" + name + "' has no usable payloads");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<Song> search(String query) throws Exception {
+        pause();
+        failMaybe();
+        return replay(pick(query.hashCode()));
+    }
+
+    @Override
+    public Mono<List<Song>> searchAsync(String query) {
+        return Mono.delay(Duration.ofMillis(nextLatency()))
+                .then(Mono.fromCallable(() -> {
+                    failMaybe();
+                    return replay(pick(query.hashCode()));
+                }));
+    }
+
+    @Override
+    public Song lookup(Long id) throws Exception {
+        pause();
+        failMaybe();
+        return replayOne(id);
+    }
+
+    @Override
+    public Mono<Song> lookupAsync(Long id) {
+        return Mono.delay(Duration.ofMillis(nextLatency()))
+                .then(Mono.fromCallable(() -> {
+                    failMaybe();
+                    return replayOne(id);
+                }));
+    }
+
+    private Recording pick(long key) {
+        return recordings.get((int) Math.floorMod(key, (long) recordings.size()));
+    }
+
+    // Parsed fresh on every call so the stub costs what a real response would to map
+    private List<Song> replay(Recording recording) throws IOException {
+        InputStream in = new ByteArrayInputStream(recording.body());
+        return List.copyOf(recording.saavnFormat()
+                ? songJsonReader.readSaavnResults(in)
+                : songJsonReader.readItunesResults(in));
+    }
+
+    // Any recorded song, re-keyed to the requested track id so callers see a consistent track
+    private Song replayOne(Long id) throws IOException {
+        List<Song> songs = replay(pick(id));
+        if (songs.isEmpty()) {
+            return null;
+        }
+        Song song = songs.get((int) Math.floorMod(id, (long) songs.size()));
+        song.setExternalId(String.valueOf(id));
+        return song;
+    }
+
+    private long nextLatency() {
+        return jitterMs > 0 ? latencyMs + ThreadLocalRandom.current().nextLong(jitterMs + 1) : latencyMs;
+    }
+
+    private void pause() throws InterruptedException {
+        long delay = nextLatency();
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private void failMaybe() throws IOException {
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new IOException("Injected failure from stub provider '" + name + "'");
+        }
+    }
+}
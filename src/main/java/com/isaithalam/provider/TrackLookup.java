@@ -0,0 +1,14 @@
+package com.isaithalam.provider;
+
+import com.isaithalam.model.Song;
+import reactor.core.publisher.Mono;
+
+// A catalogue that can also fetch a single track by its id. The lookup role (see
+// MusicProviderConfig) is typed with this, so a provider without it cannot be wired in.
+public interface TrackLookup extends MusicProvider {
+    // Returns null when the provider has no such track
+    Song lookup(Long id) throws Exception;
+
+    // Only required in reactive execution mode
+    Mono<Song> lookupAsync(Long id);
+}
@@ -0,0 +1,49 @@
+package com.isaithalam.repository;
+
+import com.isaithalam.model.PlaylistEntry;
+import com.isaithalam.model.Song;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
+import java.util.Optional;
+
+public interface PlaylistEntryRepository extends JpaRepository<PlaylistEntry, Long> {
+    Optional<PlaylistEntry> findByPlaylistIdAndSongId(Long playlistId, Long songId);
+
+    @Query("SELECT MAX(e.position) FROM PlaylistEntry e WHERE e.playlistId = :playlistId")
+    Long findMaxPosition(Long playlistId);
+
+    // Positions in playlist order from the given index on, ignoring one entry (the one being moved)
+    @Query(value = "SELECT position FROM playlist_songs WHERE playlist_id = :playlistId AND id <> :excludeId " +
+                   "ORDER BY position, id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> findPositions(Long playlistId, Long excludeId, int offset, int limit);
+
+    // Entry id breaks position ties so the order, and with it every page boundary, is total
+    @Query(value = "SELECT s FROM PlaylistEntry e JOIN Song s ON s.id = e.songId WHERE e.playlistId = :playlistId ORDER BY e.position, e.id",
+           countQuery = "SELECT COUNT(e) FROM PlaylistEntry e WHERE e.playlistId = :playlistId")
+    Page<Song> findSongs(Long playlistId, Pageable pageable);
+
+    // Keyset page: the entries after (position, id) in playlist order, as [position, id, song] rows
+    @Query("SELECT e.position, e.id, s FROM PlaylistEntry e JOIN Song s ON s.id = e.songId WHERE e.playlistId = :playlistId " +
+           "AND (e.position > :position OR (e.position = :position AND e.id > :entryId)) ORDER BY e.position, e.id")
+    List<Object[]> findSongsAfter(Long playlistId, long position, long entryId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistEntry e WHERE e.playlistId = :playlistId AND e.songId = :songId")
+    int deleteByPlaylistIdAndSongId(Long playlistId, Long songId);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistEntry e WHERE e.playlistId = :playlistId")
+    int deleteByPlaylistId(Long playlistId);
+
+    // Spreads a playlist's positions back out to multiples of the gap, keeping their order
+    @Modifying
+    @Query(value = "UPDATE playlist_songs ps SET position = :gap * (1 + (SELECT COUNT(*) FROM playlist_songs o " +
+                   "WHERE o.playlist_id = ps.playlist_id AND (o.position < ps.position OR (o.position = ps.position AND o.id < ps.id)))) " +
+                   "WHERE ps.playlist_id = :playlistId", nativeQuery = true)
+    int renumber(Long playlistId, long gap);
+}
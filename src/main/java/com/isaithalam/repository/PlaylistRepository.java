@@ -1,9 +1,27 @@
 package com.isaithalam.repository;
 
+import com.isaithalam.dto.PlaylistSummary;
 import com.isaithalam.model.Playlist;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
+import java.util.Optional;
 
 public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
     List<Playlist> findByUserId(Long userId);
+
+    // Summaries never load the songs themselves; count and cover come from playlist_songs
+    @Query("SELECT new com.isaithalam.dto.PlaylistSummary(p.id, p.name, p.description, p.coverUrl, p.userId, " +
+           "(SELECT COUNT(e) FROM PlaylistEntry e WHERE e.playlistId = p.id), " +
+           "(SELECT MIN(f.songId) FROM PlaylistEntry f WHERE f.playlistId = p.id AND f.position = " +
+           "(SELECT MIN(m.position) FROM PlaylistEntry m WHERE m.playlistId = p.id))) " +
+           "FROM Playlist p ORDER BY p.id")
+    List<PlaylistSummary> findAllSummaries();
+
+    @Query("SELECT new com.isaithalam.dto.PlaylistSummary(p.id, p.name, p.description, p.coverUrl, p.userId, " +
+           "(SELECT COUNT(e) FROM PlaylistEntry e WHERE e.playlistId = p.id), " +
+           "(SELECT MIN(f.songId) FROM PlaylistEntry f WHERE f.playlistId = p.id AND f.position = " +
+           "(SELECT MIN(m.position) FROM PlaylistEntry m WHERE m.playlistId = p.id))) " +
+           "FROM Playlist p WHERE p.id = :id")
+    Optional<PlaylistSummary> findSummaryById(Long id);
 }
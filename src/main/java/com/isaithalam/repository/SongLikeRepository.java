@@ -0,0 +1,19 @@
+package com.isaithalam.repository;
+
+import com.isaithalam.model.SongLike;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+public interface SongLikeRepository extends JpaRepository<SongLike, Long> {
+    // Served by the (user_id, song_id) unique index, already in song id order
+    @Query("SELECT l.songId FROM SongLike l WHERE l.userId = :userId ORDER BY l.songId")
+    List<Long> findSongIds(Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SongLike l WHERE l.userId = :userId AND l.songId = :songId")
+    int deleteByUserIdAndSongId(Long userId, Long songId);
+}
@@ -1,15 +1,21 @@
 package com.isaithalam.repository;
 
 import com.isaithalam.model.Song;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import java.util.List;
+import java.util.Optional;
 
 public interface SongRepository extends JpaRepository<Song, Long> {
-    List<Song> findByGenreIgnoreCase(String genre);
     List<Song> findTop10ByOrderByPlaysDesc();
-    List<Song> findByFeaturedTrue();
-    List<Song> findByLikedTrue();
+
+    Optional<Song> findBySourceAndExternalId(String source, String externalId);
+
+    // Keyset pages in id order: the rows after the given id, at most limit of them
+    List<Song> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    List<Song> findByGenreIgnoreCaseAndIdGreaterThanOrderByIdAsc(String genre, Long afterId, Limit limit);
+    List<Song> findByFeaturedTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 
     @Query("SELECT s FROM Song s WHERE LOWER(s.title) LIKE LOWER(CONCAT('%',:q,'%')) OR LOWER(s.artistName) LIKE LOWER(CONCAT('%',:q,'%')) OR LOWER(s.albumName) LIKE LOWER(CONCAT('%',:q,'%'))")
     List<Song> search(String q);
@@ -0,0 +1,190 @@
+package com.isaithalam.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Count-based circuit breaker for one upstream provider. The last windowSize call
+// outcomes are kept in a ring; once minimumCalls have been seen, the breaker opens when
+// either the failure rate or the slow-call rate reaches its threshold. While open every
+// call is rejected without touching the network. After openDuration a few probe calls
+// are let through (half-open): all succeeding closes the breaker, any failure or slow
+// probe opens it again.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T run() throws Exception;
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+
+    // Guarded by this; every critical section is a few field updates, never I/O
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private long successCount;
+    private long failureCount;
+    private long slowCount;
+    private long rejectedCount;
+    private long tripCount;
+    private long lastTransitionAt = System.currentTimeMillis();
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+                          int slowCallRateThreshold, long slowCallMs, long openDurationMs, int halfOpenCalls) {
+        this.name = name;
+        this.outcomes = new byte[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.openDurationMs = openDurationMs;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    // Runs the call if the breaker allows it and records how it went
+    public <T> T call(Call<T> call) throws Exception {
+        if (!tryAcquirePermission()) {
+            throw new CircuitOpenException(name);
+        }
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.run();
+        } catch (Exception e) {
+            onError(System.nanoTime() - start);
+            throw e;
+        }
+        onSuccess(System.nanoTime() - start);
+        return result;
+    }
+
+    // Every granted permission must be followed by exactly one onSuccess or onError
+    public synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() >= openUntil) {
+                    transitionTo(State.HALF_OPEN);
+                    probesStarted = 1;
+                    return true;
+                }
+                break;
+            case HALF_OPEN:
+                if (probesStarted < halfOpenCalls) {
+                    probesStarted++;
+                    return true;
+                }
+                break;
+        }
+        rejectedCount++;
+        return false;
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(false, durationNanos >= slowCallNanos);
+    }
+
+    public void onError(long durationNanos) {
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    private synchronized void record(boolean failed, boolean slow) {
+        if (failed) failureCount++; else successCount++;
+        if (slow) slowCount++;
+
+        switch (state) {
+            case HALF_OPEN:
+                if (failed || slow) {
+                    trip();
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+                return;
+            case OPEN:
+                // A call that started before the breaker opened; the verdict is already in
+                return;
+            case CLOSED:
+                break;
+        }
+
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[next];
+            if ((evicted & FAILED) != 0) failures--;
+            if ((evicted & SLOW) != 0) slowCalls--;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        next = (next + 1) % outcomes.length;
+        if (failed) failures++;
+        if (slow) slowCalls++;
+
+        if (recorded >= minimumCalls
+                && (failures * 100 >= failureRateThreshold * recorded
+                    || slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+            trip();
+        }
+    }
+
+    // Caller must hold the monitor
+    private void trip() {
+        tripCount++;
+        openUntil = System.currentTimeMillis() + openDurationMs;
+        transitionTo(State.OPEN);
+    }
+
+    // Caller must hold the monitor
+    private void transitionTo(State target) {
+        state = target;
+        lastTransitionAt = System.currentTimeMillis();
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (target != State.OPEN) {
+            // Half-open and closed both judge from fresh outcomes only
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+
+    public String getName() { return name; }
+    public synchronized State getState() { return state; }
+    public synchronized long getTripCount() { return tripCount; }
+    public synchronized long getRejectedCount() { return rejectedCount; }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("since", lastTransitionAt);
+        stats.put("trips", tripCount);
+        stats.put("windowCalls", recorded);
+        stats.put("windowFailureRate", recorded == 0 ? 0.0 : failures * 100.0 / recorded);
+        stats.put("windowSlowCallRate", recorded == 0 ? 0.0 : slowCalls * 100.0 / recorded);
+        stats.put("successes", successCount);
+        stats.put("failures", failureCount);
+        stats.put("slowCalls", slowCount);
+        stats.put("rejected", rejectedCount);
+        return stats;
+    }
+}
@@ -0,0 +1,8 @@
+package com.isaithalam.resilience;
+
+// Thrown instead of calling a provider whose circuit breaker is open
+public class CircuitOpenException extends RuntimeException {
+    public CircuitOpenException(String provider) {
+        super("Circuit breaker for '" + provider + "' is open");
+    }
+}
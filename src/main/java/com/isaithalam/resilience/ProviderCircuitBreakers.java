@@ -0,0 +1,61 @@
+package com.isaithalam.resilience;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One circuit breaker per upstream provider, shared by the blocking and reactive
+// clients so both see the same provider health.
+@Component
+public class ProviderCircuitBreakers {
+    private final CircuitBreaker saavn;
+    private final CircuitBreaker itunes;
+
+    public ProviderCircuitBreakers(
+            @Value("${isaithalam.breaker.window-size:20}") int windowSize,
+            @Value("${isaithalam.breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${isaithalam.breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${isaithalam.breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+            @Value("${isaithalam.breaker.slow-call-ms:2000}") long slowCallMs,
+            @Value("${isaithalam.breaker.open-duration-ms:30000}") long openDurationMs,
+            @Value("${isaithalam.breaker.half-open-calls:3}") int halfOpenCalls) {
+        this.saavn = new CircuitBreaker("saavn", windowSize, minimumCalls, failureRateThreshold,
+                slowCallRateThreshold, slowCallMs, openDurationMs, halfOpenCalls);
+        this.itunes = new CircuitBreaker("itunes", windowSize, minimumCalls, failureRateThreshold,
+                slowCallRateThreshold, slowCallMs, openDurationMs, halfOpenCalls);
+    }
+
+    public CircuitBreaker saavn() { return saavn; }
+    public CircuitBreaker itunes() { return itunes; }
+
+    public List<CircuitBreaker> all() {
+        return List.of(saavn, itunes);
+    }
+
+    // Reactive form of CircuitBreaker.call. A cancelled call counts as a failure, since it
+    // was abandoned before the provider answered.
+    public static <T> Mono<T> guard(CircuitBreaker breaker, Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquirePermission()) {
+                return Mono.error(new CircuitOpenException(breaker.getName()));
+            }
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(value -> breaker.onSuccess(System.nanoTime() - start))
+                    .doOnError(e -> breaker.onError(System.nanoTime() - start))
+                    .doOnCancel(() -> breaker.onError(System.nanoTime() - start));
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (CircuitBreaker breaker : all()) {
+            stats.put(breaker.getName(), breaker.stats());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,36 @@
+package com.isaithalam.search;
+
+import com.isaithalam.model.Song;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+// An in-memory structure derived from the songs table, rebuilt at startup and then
+// maintained incrementally from entity events
+public interface CatalogueIndex {
+    void rebuild(List<Song> songs);
+
+    void index(Song song);
+
+    // Bulk form of index for imports; implementations can share work across the songs
+    default void indexAll(Collection<Song> songs) {
+        for (Song song : songs) {
+            index(song);
+        }
+    }
+
+    void remove(Long songId);
+
+    // Play counts are written with plain SQL (see PlayCounterService), so entity events
+    // never see them; flushed deltas are pushed here instead
+    void addPlays(Long songId, long delta);
+
+    // Serialized form for CatalogueSnapshot: readSnapshot must leave the index exactly as
+    // it was when writeSnapshot ran, replacing whatever it held
+    void writeSnapshot(DataOutput out) throws IOException;
+
+    void readSnapshot(DataInput in) throws IOException;
+}
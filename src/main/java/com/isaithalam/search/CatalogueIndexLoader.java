@@ -0,0 +1,47 @@
+package com.isaithalam.search;
+
+import com.isaithalam.model.Artist;
+import com.isaithalam.model.Song;
+import com.isaithalam.repository.ArtistRepository;
+import com.isaithalam.repository.SongRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+// Builds the in-memory catalogue indexes once the catalogue is in place, from a
+// CatalogueSnapshot when there is a usable one, from the songs table otherwise
+@Component
+public class CatalogueIndexLoader {
+    private final SongRepository songRepository;
+    private final ArtistRepository artistRepository;
+    private final List<CatalogueIndex> indexes;
+    private final SuggestionIndex suggestionIndex;
+    private final CatalogueSnapshot snapshot;
+
+    public CatalogueIndexLoader(SongRepository songRepository, ArtistRepository artistRepository,
+                                List<CatalogueIndex> indexes, SuggestionIndex suggestionIndex,
+                                CatalogueSnapshot snapshot) {
+        this.songRepository = songRepository;
+        this.artistRepository = artistRepository;
+        this.indexes = indexes;
+        this.suggestionIndex = suggestionIndex;
+        this.snapshot = snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!snapshot.restore()) {
+            rebuild();
+        }
+        snapshot.indexesLoaded();
+    }
+
+    private void rebuild() {
+        List<Song> songs = songRepository.findAll();
+        for (CatalogueIndex index : indexes) {
+            index.rebuild(songs);
+        }
+        suggestionIndex.addArtistNames(artistRepository.findAll().stream().map(Artist::getName).toList());
+    }
+}
@@ -0,0 +1,157 @@
+package com.isaithalam.search;
+
+import com.isaithalam.service.PlayCounterService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Saves the catalogue indexes to disk on shutdown and loads them on the next start, so
+// a persistent store does not pay for a full rebuild on every restart.
+// - The file carries a fingerprint of the songs and artists tables; if the database no
+//   longer matches (a migration, an edit made while the app was down) it is ignored.
+// - A snapshot is consumed when loaded, so after a crash the indexes are rebuilt rather
+//   than restored from a state older than the database.
+@Component
+public class CatalogueSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(CatalogueSnapshot.class);
+
+    private static final int MAGIC = 0x49534e50;
+    private static final int FORMAT_VERSION = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<CatalogueIndex> indexes;
+    private final PlayCounterService playCounterService;
+    private final boolean enabled;
+    private final Path file;
+    private volatile boolean indexesLoaded;
+
+    public CatalogueSnapshot(JdbcTemplate jdbcTemplate, List<CatalogueIndex> indexes,
+                             PlayCounterService playCounterService,
+                             @Value("${isaithalam.index.snapshot.enabled:false}") boolean enabled,
+                             @Value("${isaithalam.index.snapshot.file:catalogue-index.snapshot}") String file) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexes = indexes;
+        this.playCounterService = playCounterService;
+        this.enabled = enabled;
+        this.file = Paths.get(file).toAbsolutePath();
+    }
+
+    // True if every index was loaded from the snapshot; otherwise the caller rebuilds them
+    public boolean restore() {
+        if (!enabled || !Files.exists(file)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            Map<String, byte[]> sections = new HashMap<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    log.info("Ignoring catalogue snapshot {}: unknown format", file);
+                    return false;
+                }
+                long[] saved = new long[in.readInt()];
+                for (int i = 0; i < saved.length; i++) {
+                    saved[i] = in.readLong();
+                }
+                if (!Arrays.equals(saved, fingerprint())) {
+                    log.info("Ignoring catalogue snapshot {}: the catalogue changed since it was written", file);
+                    return false;
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    String name = in.readUTF();
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    sections.put(name, bytes);
+                }
+            }
+            for (CatalogueIndex index : indexes) {
+                byte[] bytes = sections.get(index.getClass().getName());
+                if (bytes == null) {
+                    log.info("Ignoring catalogue snapshot {}: no section for {}", file, index.getClass().getSimpleName());
+                    return false;
+                }
+                index.readSnapshot(new DataInputStream(new ByteArrayInputStream(bytes)));
+            }
+            Files.delete(file);
+            log.info("Catalogue indexes restored from {} in {} ms", file, (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore catalogue snapshot {}, rebuilding: {}", file, e.toString());
+            return false;
+        }
+    }
+
+    // Called once the indexes hold the whole catalogue; nothing is saved before that
+    public void indexesLoaded() {
+        indexesLoaded = true;
+    }
+
+    @PreDestroy
+    public void save() {
+        if (!enabled || !indexesLoaded) {
+            return;
+        }
+        // Buffered plays are part of the state being captured
+        playCounterService.flush();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                long[] fingerprint = fingerprint();
+                out.writeInt(fingerprint.length);
+                for (long value : fingerprint) {
+                    out.writeLong(value);
+                }
+                out.writeInt(indexes.size());
+                for (CatalogueIndex index : indexes) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    index.writeSnapshot(new DataOutputStream(bytes));
+                    out.writeUTF(index.getClass().getName());
+                    out.writeInt(bytes.size());
+                    bytes.writeTo(out);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.info("Catalogue indexes saved to {}", file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save catalogue snapshot {}: {}", file, e.toString());
+            temp.toFile().delete();
+        }
+    }
+
+    // Song count, highest id, total plays and artist count
+    private long[] fingerprint() {
+        long[] songs = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(plays), 0) FROM songs",
+                (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+        Long artists = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM artists", Long.class);
+        return new long[]{songs[0], songs[1], songs[2], artists};
+    }
+}
@@ -0,0 +1,517 @@
+package com.isaithalam.search;
+
+import com.isaithalam.dto.FacetCount;
+import com.isaithalam.model.Song;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Genre, artist and album facets over the local catalogue, kept in memory so genre lists,
+// genre browsing and facet counts never scan the songs table. Every facet value holds the
+// ids of its songs as a sorted long[]; values match case-insensitively and keep the
+// spelling they were first seen with. A comma-separated artist name counts towards each
+// artist. Writes collect their id changes per value and rewrite each touched array once,
+// so a bulk import or a rebuild costs one merge per value rather than one per song.
+@Component
+public class FacetIndex implements CatalogueIndex {
+
+    public enum Facet {
+        GENRE, ARTIST, ALBUM;
+
+        public static Facet parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Matching song ids (ranked) and the facet counts over all of the matches
+    public record Result(List<Long> ids, int total, Map<Facet, List<FacetCount>> counts) {}
+
+    private static final class Value {
+        final Facet facet;
+        final String name;
+        long[] ids = new long[0];
+
+        Value(Facet facet, String name) {
+            this.facet = facet;
+            this.name = name;
+        }
+
+        int count() {
+            return ids.length;
+        }
+
+        // Both arguments sorted and distinct; removals apply before additions
+        void apply(long[] removed, long[] added) {
+            long[] merged = new long[ids.length + added.length];
+            int n = 0;
+            int i = 0;
+            int r = 0;
+            int a = 0;
+            while (i < ids.length || a < added.length) {
+                if (i < ids.length) {
+                    long id = ids[i];
+                    while (r < removed.length && removed[r] < id) {
+                        r++;
+                    }
+                    if (r < removed.length && removed[r] == id) {
+                        i++;
+                        continue;
+                    }
+                }
+                long next;
+                if (a >= added.length || (i < ids.length && ids[i] < added[a])) {
+                    next = ids[i++];
+                } else if (i < ids.length && ids[i] == added[a]) {
+                    next = ids[i++];
+                    a++;
+                } else {
+                    next = added[a++];
+                }
+                merged[n++] = next;
+            }
+            ids = n == merged.length ? merged : Arrays.copyOf(merged, n);
+        }
+    }
+
+    private static final class Doc {
+        long plays;
+        final Value[] values;
+
+        Doc(long plays, Value[] values) {
+            this.plays = plays;
+            this.values = values;
+        }
+
+        boolean hasAll(List<Value> required) {
+            for (Value value : required) {
+                boolean found = false;
+                for (Value own : values) {
+                    if (own == value) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Id changes per value, applied once the whole write is known
+    private static final class Changes {
+        final Map<Value, LongList> removed = new IdentityHashMap<>();
+        final Map<Value, LongList> added = new IdentityHashMap<>();
+
+        void remove(Value value, long id) {
+            removed.computeIfAbsent(value, v -> new LongList()).add(id);
+        }
+
+        void add(Value value, long id) {
+            added.computeIfAbsent(value, v -> new LongList()).add(id);
+        }
+    }
+
+    private static final class LongList {
+        long[] values = new long[4];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] sortedDistinct() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int n = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[n++] = sorted[i];
+                }
+            }
+            return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+        }
+    }
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Per facet: lower-cased value -> value
+    private final Map<Facet, Map<String, Value>> values = new EnumMap<>(Facet.class);
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private volatile boolean ready;
+
+    public FacetIndex() {
+        for (Facet facet : Facet.values()) {
+            values.put(facet, new HashMap<>());
+        }
+    }
+
+    @Override
+    public void rebuild(List<Song> songs) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            writeAll(songs);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Song song) {
+        indexAll(List.of(song));
+    }
+
+    @Override
+    public void indexAll(Collection<Song> songs) {
+        lock.writeLock().lock();
+        try {
+            writeAll(songs);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long songId) {
+        lock.writeLock().lock();
+        try {
+            Changes changes = new Changes();
+            Doc doc = docs.remove(songId);
+            if (doc != null) {
+                for (Value value : doc.values) {
+                    changes.remove(value, songId);
+                }
+            }
+            apply(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addPlays(Long songId, long delta) {
+        lock.writeLock().lock();
+        try {
+            Doc doc = docs.get(songId);
+            if (doc != null) {
+                doc.plays += delta;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Values per facet by name, then per song: id, plays and its values as (facet, number)
+    @Override
+    public void writeSnapshot(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            Map<Value, Integer> numbers = new IdentityHashMap<>();
+            for (Facet facet : Facet.values()) {
+                Collection<Value> facetValues = values.get(facet).values();
+                out.writeInt(facetValues.size());
+                for (Value value : facetValues) {
+                    numbers.put(value, numbers.size());
+                    out.writeUTF(value.name);
+                }
+            }
+            out.writeInt(docs.size());
+            for (Map.Entry<Long, Doc> e : docs.entrySet()) {
+                Doc doc = e.getValue();
+                out.writeLong(e.getKey());
+                out.writeLong(doc.plays);
+                out.writeInt(doc.values.length);
+                for (Value value : doc.values) {
+                    out.writeInt(numbers.get(value));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void readSnapshot(DataInput in) throws IOException {
+        lock.writeLock().lock();
+        try {
+            clear();
+            List<Value> numbered = new ArrayList<>();
+            for (Facet facet : Facet.values()) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    Value value = new Value(facet, in.readUTF());
+                    values.get(facet).put(normalize(value.name), value);
+                    numbered.add(value);
+                }
+            }
+            Changes changes = new Changes();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long plays = in.readLong();
+                Value[] docValues = new Value[in.readInt()];
+                for (int v = 0; v < docValues.length; v++) {
+                    docValues[v] = numbered.get(in.readInt());
+                    changes.add(docValues[v], id);
+                }
+                docs.put(id, new Doc(plays, docValues));
+            }
+            apply(changes);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // The facet's values by song count, most songs first
+    public List<FacetCount> counts(Facet facet, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Value, Integer> counts = new IdentityHashMap<>();
+            for (Value value : values.get(facet).values()) {
+                counts.put(value, value.count());
+            }
+            return top(counts, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to max ids of songs with the value, after afterId in id order
+    public long[] songsAfter(Facet facet, String name, long afterId, int max) {
+        lock.readLock().lock();
+        try {
+            Value value = values.get(facet).get(normalize(name));
+            if (value == null) {
+                return NO_IDS;
+            }
+            int at = Arrays.binarySearch(value.ids, afterId);
+            int from = at >= 0 ? at + 1 : -at - 1;
+            return Arrays.copyOfRange(value.ids, from, Math.min(value.ids.length, from + Math.max(max, 0)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Narrows songs to those having every filter value and counts the facets over what is
+    // left. ranked holds candidate ids in rank order (a search), or null for the whole
+    // catalogue, which then ranks by plays.
+    public Result filter(List<Long> ranked, Map<Facet, String> filters, int limit, int facetLimit) {
+        lock.readLock().lock();
+        try {
+            List<Value> required = new ArrayList<>();
+            for (Map.Entry<Facet, String> filter : filters.entrySet()) {
+                Value value = values.get(filter.getKey()).get(normalize(filter.getValue()));
+                if (value == null) {
+                    return new Result(List.of(), 0, emptyCounts());
+                }
+                required.add(value);
+            }
+
+            Map<Value, Integer> counts = new IdentityHashMap<>();
+            List<Long> ids = new ArrayList<>();
+            int total = 0;
+            if (ranked != null) {
+                for (Long id : ranked) {
+                    Doc doc = docs.get(id);
+                    if (doc != null && doc.hasAll(required)) {
+                        count(doc, counts);
+                        if (ids.size() < limit) {
+                            ids.add(id);
+                        }
+                        total++;
+                    }
+                }
+            } else {
+                // Most played first: a bounded heap keeps the top limit of the matches
+                Comparator<Map.Entry<Long, Doc>> byPlays = Comparator
+                        .comparingLong((Map.Entry<Long, Doc> e) -> e.getValue().plays)
+                        .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+                PriorityQueue<Map.Entry<Long, Doc>> top = new PriorityQueue<>(byPlays);
+                for (Map.Entry<Long, Doc> e : candidates(required)) {
+                    if (!e.getValue().hasAll(required)) {
+                        continue;
+                    }
+                    count(e.getValue(), counts);
+                    total++;
+                    if (limit <= 0) {
+                        continue;
+                    }
+                    if (top.size() < limit) {
+                        top.add(e);
+                    } else if (byPlays.compare(e, top.peek()) > 0) {
+                        top.poll();
+                        top.add(e);
+                    }
+                }
+                List<Map.Entry<Long, Doc>> best = new ArrayList<>(top);
+                best.sort(byPlays.reversed());
+                for (Map.Entry<Long, Doc> e : best) {
+                    ids.add(e.getKey());
+                }
+            }
+
+            Map<Facet, List<FacetCount>> byFacet = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                Map<Value, Integer> facetCounts = new IdentityHashMap<>();
+                for (Map.Entry<Value, Integer> e : counts.entrySet()) {
+                    if (e.getKey().facet == facet) {
+                        facetCounts.put(e.getKey(), e.getValue());
+                    }
+                }
+                byFacet.put(facet, top(facetCounts, facetLimit));
+            }
+            return new Result(ids, total, byFacet);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock. The songs of the rarest required value, or every song.
+    private Iterable<Map.Entry<Long, Doc>> candidates(List<Value> required) {
+        Value rarest = null;
+        for (Value value : required) {
+            if (rarest == null || value.count() < rarest.count()) {
+                rarest = value;
+            }
+        }
+        if (rarest == null) {
+            return docs.entrySet();
+        }
+        Map<Long, Doc> subset = new LinkedHashMap<>();
+        for (long id : rarest.ids) {
+            subset.put(id, docs.get(id));
+        }
+        return subset.entrySet();
+    }
+
+    private static void count(Doc doc, Map<Value, Integer> counts) {
+        for (Value value : doc.values) {
+            counts.merge(value, 1, Integer::sum);
+        }
+    }
+
+    private static List<FacetCount> top(Map<Value, Integer> counts, int limit) {
+        List<Map.Entry<Value, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<Value, Integer>comparingByValue().reversed()
+                .thenComparing(e -> e.getKey().name, String.CASE_INSENSITIVE_ORDER));
+        List<FacetCount> top = new ArrayList<>(Math.min(entries.size(), Math.max(limit, 0)));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            top.add(new FacetCount(entries.get(i).getKey().name, entries.get(i).getValue()));
+        }
+        return top;
+    }
+
+    private static Map<Facet, List<FacetCount>> emptyCounts() {
+        Map<Facet, List<FacetCount>> empty = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            empty.put(facet, List.of());
+        }
+        return empty;
+    }
+
+    // Caller holds the write lock
+    private void clear() {
+        for (Map<String, Value> facetValues : values.values()) {
+            facetValues.clear();
+        }
+        docs.clear();
+    }
+
+    // Caller holds the write lock
+    private void writeAll(Collection<Song> songs) {
+        Changes changes = new Changes();
+        for (Song song : songs) {
+            if (song.getId() == null) {
+                continue;
+            }
+            long id = song.getId();
+            Doc old = docs.get(id);
+            Value[] next = valuesOf(song);
+            if (old != null) {
+                for (Value value : old.values) {
+                    changes.remove(value, id);
+                }
+            }
+            for (Value value : next) {
+                changes.add(value, id);
+            }
+            docs.put(id, new Doc(song.getPlays(), next));
+        }
+        apply(changes);
+    }
+
+    // Caller holds the write lock. Values left without songs are dropped.
+    private void apply(Changes changes) {
+        Map<Value, Boolean> touched = new IdentityHashMap<>();
+        changes.removed.keySet().forEach(v -> touched.put(v, true));
+        changes.added.keySet().forEach(v -> touched.put(v, true));
+        for (Value value : touched.keySet()) {
+            LongList removed = changes.removed.get(value);
+            LongList added = changes.added.get(value);
+            value.apply(removed != null ? removed.sortedDistinct() : NO_IDS,
+                    added != null ? added.sortedDistinct() : NO_IDS);
+            if (value.count() == 0) {
+                values.get(value.facet).remove(normalize(value.name), value);
+            }
+        }
+    }
+
+    // Caller holds the write lock; creates values not seen before
+    private Value[] valuesOf(Song song) {
+        List<Value> own = new ArrayList<>(4);
+        addValue(own, Facet.GENRE, song.getGenre());
+        if (song.getArtistName() != null) {
+            for (String artist : song.getArtistName().split(",")) {
+                addValue(own, Facet.ARTIST, artist);
+            }
+        }
+        addValue(own, Facet.ALBUM, song.getAlbumName());
+        return own.toArray(new Value[0]);
+    }
+
+    private void addValue(List<Value> own, Facet facet, String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String trimmed = name.trim();
+        Value value = values.get(facet).computeIfAbsent(normalize(trimmed), k -> new Value(facet, trimmed));
+        if (!own.contains(value)) {
+            own.add(value);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
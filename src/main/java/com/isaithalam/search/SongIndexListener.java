@@ -0,0 +1,46 @@
+package com.isaithalam.search;
+
+import com.isaithalam.model.Song;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+
+// JPA entity listener keeping the in-memory indexes in step with the songs table.
+// Changes are applied after commit so rolled-back writes never become searchable.
+@Component
+public class SongIndexListener {
+    private final List<CatalogueIndex> indexes;
+
+    public SongIndexListener(List<CatalogueIndex> indexes) {
+        this.indexes = indexes;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Song song) {
+        afterCommit(() -> indexes.forEach(index -> index.index(song)));
+    }
+
+    @PostRemove
+    public void onRemove(Song song) {
+        Long id = song.getId();
+        afterCommit(() -> indexes.forEach(index -> index.remove(id)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
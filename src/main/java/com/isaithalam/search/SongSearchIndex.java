@@ -0,0 +1,289 @@
+package com.isaithalam.search;
+
+import com.isaithalam.model.Song;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over the local catalogue (title, artist, album). Terms live
+// in a sorted map so every query token is matched as a prefix with a range scan.
+// Built at startup by CatalogueIndexLoader, then kept current by SongIndexListener.
+@Component
+public class SongSearchIndex implements CatalogueIndex {
+    static final int TITLE = 1;
+    static final int ARTIST = 2;
+    static final int ALBUM = 4;
+
+    private static class Doc {
+        final long plays;
+        final String[] terms;
+
+        Doc(long plays, String[] terms) {
+            this.plays = plays;
+            this.terms = terms;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (song id -> bitmask of fields containing the term)
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private volatile boolean ready;
+
+    @Override
+    public void rebuild(List<Song> songs) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            for (Song song : songs) {
+                add(song);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Song song) {
+        if (song.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDoc(song.getId());
+            add(song);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexAll(Collection<Song> songs) {
+        lock.writeLock().lock();
+        try {
+            for (Song song : songs) {
+                if (song.getId() != null) {
+                    removeDoc(song.getId());
+                    add(song);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addPlays(Long id, long delta) {
+        lock.writeLock().lock();
+        try {
+            Doc doc = docs.get(id);
+            if (doc != null) {
+                docs.put(id, new Doc(doc.plays + delta, doc.terms));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Per song: id, plays and its terms with their field masks, so loading skips tokenizing
+    @Override
+    public void writeSnapshot(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(docs.size());
+            for (Map.Entry<Long, Doc> e : docs.entrySet()) {
+                Long id = e.getKey();
+                Doc doc = e.getValue();
+                out.writeLong(id);
+                out.writeLong(doc.plays);
+                out.writeInt(doc.terms.length);
+                for (String term : doc.terms) {
+                    out.writeUTF(term);
+                    out.writeByte(postings.get(term).get(id));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void readSnapshot(DataInput in) throws IOException {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Long id = in.readLong();
+                long plays = in.readLong();
+                String[] terms = new String[in.readInt()];
+                for (int t = 0; t < terms.length; t++) {
+                    terms[t] = in.readUTF();
+                    postings.computeIfAbsent(terms[t], k -> new HashMap<>()).put(id, (int) in.readByte());
+                }
+                docs.put(id, new Doc(plays, terms));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean contains(Long id) {
+        lock.readLock().lock();
+        try {
+            return docs.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ranked song ids matching every query token. A finished word matches the terms it
+    // prefixes, raw or folded; a word the query ends inside matches the raw terms it
+    // prefixes, plus its folded spelling as a whole word ("kaadhal" finds "Kadhal", while
+    // "tha" does not turn into "da" and find "Dance")
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = SongTokenizer.tokenizeRaw(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        boolean lastPartial = SongTokenizer.endsInToken(query);
+
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < tokens.size(); i++) {
+                String raw = tokens.get(i);
+                String folded = SongTokenizer.fold(raw);
+                Map<Long, Double> tokenScores = new HashMap<>();
+                scoreTerms(tokenScores, raw, raw, folded);
+                if (lastPartial && i == tokens.size() - 1) {
+                    Map<Long, Integer> exact = postings.get(folded);
+                    if (exact != null) {
+                        scoreTerm(tokenScores, exact, 2.0);
+                    }
+                } else if (!folded.equals(raw)) {
+                    scoreTerms(tokenScores, folded, raw, folded);
+                }
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                        e.setValue(e.getValue() + tokenScores.get(e.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Double> finalScores = scores;
+            List<Long> ids = new ArrayList<>(finalScores.keySet());
+            ids.sort(Comparator.<Long>comparingDouble(finalScores::get).reversed()
+                    .thenComparing(Comparator.<Long>comparingLong(id -> docs.get(id).plays).reversed())
+                    .thenComparing(Comparator.naturalOrder()));
+            return ids.size() > limit ? new ArrayList<>(ids.subList(0, limit)) : ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock. Scores every term starting with prefix; whole-word
+    // matches of the token outrank prefix matches.
+    private void scoreTerms(Map<Long, Double> tokenScores, String prefix, String raw, String folded) {
+        NavigableMap<String, Map<Long, Integer>> range =
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Long, Integer>> term : range.entrySet()) {
+            boolean whole = term.getKey().equals(raw) || term.getKey().equals(folded);
+            scoreTerm(tokenScores, term.getValue(), whole ? 2.0 : 1.0);
+        }
+    }
+
+    private static void scoreTerm(Map<Long, Double> tokenScores, Map<Long, Integer> posting, double termBoost) {
+        for (Map.Entry<Long, Integer> e : posting.entrySet()) {
+            tokenScores.merge(e.getKey(), termBoost * fieldWeight(e.getValue()), Math::max);
+        }
+    }
+
+    private static double fieldWeight(int mask) {
+        if ((mask & TITLE) != 0) return 3.0;
+        if ((mask & ARTIST) != 0) return 2.0;
+        return 1.0;
+    }
+
+    // Caller must hold the write lock
+    private void add(Song song) {
+        Map<String, Integer> fieldsByTerm = new HashMap<>();
+        addField(fieldsByTerm, song.getTitle(), TITLE);
+        addField(fieldsByTerm, song.getArtistName(), ARTIST);
+        addField(fieldsByTerm, song.getAlbumName(), ALBUM);
+
+        for (Map.Entry<String, Integer> e : fieldsByTerm.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(song.getId(), e.getValue());
+        }
+        docs.put(song.getId(), new Doc(song.getPlays(), fieldsByTerm.keySet().toArray(new String[0])));
+    }
+
+    // Each word under its raw and its folded spelling, so partial words can match raw
+    private static void addField(Map<String, Integer> fieldsByTerm, String text, int field) {
+        for (String token : SongTokenizer.tokenizeRaw(text)) {
+            fieldsByTerm.merge(token, field, (a, b) -> a | b);
+            fieldsByTerm.merge(SongTokenizer.fold(token), field, (a, b) -> a | b);
+        }
+    }
+
+    // Caller must hold the write lock
+    private void removeDoc(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.isaithalam.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Splits catalogue text into case-folded tokens. Latin tokens are additionally folded
+// so common spelling variants of transliterated Tamil land on the same term
+// ("kaadhal", "kadhal" and "kathal" all become "kadal"). Folding only holds for whole
+// words, so a word still being typed is matched by its raw form: "th" must not fold to
+// "d" before the user gets to "thunder".
+public final class SongTokenizer {
+
+    private SongTokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = tokenizeRaw(text);
+        tokens.replaceAll(SongTokenizer::fold);
+        return tokens;
+    }
+
+    // Lower-cased tokens without folding
+    public static List<String> tokenizeRaw(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean tokenChar = i < lower.length() && isTokenChar(lower.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Whether the text ends in the middle of a word, i.e. its last token may be incomplete
+    public static boolean endsInToken(String text) {
+        return text != null && !text.isEmpty() && isTokenChar(text.charAt(text.length() - 1));
+    }
+
+    // Tamil vowel signs are combining marks, so they have to count as part of a word
+    private static boolean isTokenChar(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    static String fold(String token) {
+        if (!isLatin(token)) {
+            return token;
+        }
+        String folded = token
+                .replace("ee", "i")
+                .replace("oo", "u")
+                .replace("th", "d")
+                .replace("dh", "d")
+                .replace("zh", "l")
+                .replace("sh", "s")
+                .replace('w', 'v');
+        // Collapse doubled letters: "kanna" -> "kana", "appa" -> "apa"
+        StringBuilder sb = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (i == 0 || c != folded.charAt(i - 1)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isLatin(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) > 0x024F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,582 @@
+package com.isaithalam.search;
+
+import com.isaithalam.dto.Suggestion;
+import com.isaithalam.model.Song;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Search-as-you-type completions for song titles, artists and albums. Each entry is
+// inserted into a character trie under every word start ("a r rahman", "r rahman",
+// "rahman"), and every node caches the top-k entries of its subtree by total plays, so
+// a lookup is one walk down the prefix plus a copy of at most k entries. Entries are
+// keyed by their folded spelling and also inserted under each raw spelling seen, since a
+// half-typed word has to be matched raw ("th" is the start of "thunder", not a "d").
+@Component
+public class SuggestionIndex implements CatalogueIndex {
+    public static final int TOP_K = 10;
+
+    public enum Type { TITLE, ARTIST, ALBUM }
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final String[] NO_RAW_KEYS = new String[0];
+
+    // Heaviest first, then shorter, then alphabetical
+    private static final Comparator<Entry> BY_WEIGHT = (a, b) -> {
+        if (a.weight != b.weight) {
+            return a.weight > b.weight ? -1 : 1;
+        }
+        int byLength = Integer.compare(a.text.length(), b.text.length());
+        return byLength != 0 ? byLength : a.text.compareTo(b.text);
+    };
+
+    private static final class Entry {
+        final Type type;
+        final String text;
+        final String key;
+        // Raw spellings that differ from the folded key
+        String[] rawKeys = NO_RAW_KEYS;
+        long weight;
+        int refs;
+
+        Entry(Type type, String text, String key) {
+            this.type = type;
+            this.text = text;
+            this.key = key;
+        }
+
+        void forEachKey(Consumer<String> action) {
+            action.accept(key);
+            for (String rawKey : rawKeys) {
+                action.accept(rawKey);
+            }
+        }
+    }
+
+    // Children are kept in parallel sorted arrays rather than maps to keep nodes small
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        Entry[] terminals = NO_ENTRIES;
+        Entry[] top = NO_ENTRIES;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node getOrAddChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = new Node();
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && terminals.length == 0;
+        }
+    }
+
+    private static final class Contribution {
+        final Entry[] entries;
+        final long plays;
+
+        Contribution(Entry[] entries, long plays) {
+            this.entries = entries;
+            this.plays = plays;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    @Override
+    public void rebuild(List<Song> songs) {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            entries.clear();
+            contributions.clear();
+            for (Song song : songs) {
+                addSong(song, null);
+            }
+            computeTops(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Artist rows contribute names even before any of their songs exist
+    public void addArtistNames(List<String> names) {
+        lock.writeLock().lock();
+        try {
+            Set<Entry> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String name : names) {
+                Entry entry = acquire(Type.ARTIST, name);
+                if (entry != null) {
+                    changed.add(entry);
+                }
+            }
+            recomputePaths(changed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Song song) {
+        if (song.getId() == null) {
+            return;
+        }
+        indexAll(List.of(song));
+    }
+
+    // Every node the songs' entries pass through is recomputed once for the whole batch,
+    // rather than once per song, which matters near the root
+    @Override
+    public void indexAll(Collection<Song> songs) {
+        lock.writeLock().lock();
+        try {
+            Set<Entry> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Song song : songs) {
+                if (song.getId() != null) {
+                    removeSong(song.getId(), changed);
+                    addSong(song, changed);
+                }
+            }
+            recomputePaths(changed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long songId) {
+        lock.writeLock().lock();
+        try {
+            Set<Entry> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            removeSong(songId, changed);
+            recomputePaths(changed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addPlays(Long songId, long delta) {
+        lock.writeLock().lock();
+        try {
+            Contribution contribution = contributions.get(songId);
+            if (contribution == null) {
+                return;
+            }
+            contributions.put(songId, new Contribution(contribution.entries, contribution.plays + delta));
+            for (Entry entry : contribution.entries) {
+                entry.weight += delta;
+            }
+            recomputePaths(Arrays.asList(contribution.entries));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Entries once, numbered in write order, then contributions and the trie (pre-order,
+    // with each node's terminals and cached top-k) as entry numbers. Loading restores the
+    // trie as-is instead of re-inserting every suffix and recomputing every top-k.
+    @Override
+    public void writeSnapshot(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            Map<Entry, Integer> numbers = new IdentityHashMap<>();
+            out.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                numbers.put(entry, numbers.size());
+                out.writeByte(entry.type.ordinal());
+                out.writeUTF(entry.text);
+                out.writeUTF(entry.key);
+                out.writeInt(entry.rawKeys.length);
+                for (String rawKey : entry.rawKeys) {
+                    out.writeUTF(rawKey);
+                }
+                out.writeLong(entry.weight);
+                out.writeInt(entry.refs);
+            }
+            out.writeInt(contributions.size());
+            for (Map.Entry<Long, Contribution> e : contributions.entrySet()) {
+                out.writeLong(e.getKey());
+                out.writeLong(e.getValue().plays);
+                writeEntries(out, e.getValue().entries, numbers);
+            }
+            writeNode(out, root, numbers);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void readSnapshot(DataInput in) throws IOException {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            contributions.clear();
+            Type[] types = Type.values();
+            Entry[] numbered = new Entry[in.readInt()];
+            for (int i = 0; i < numbered.length; i++) {
+                Entry entry = new Entry(types[in.readByte()], in.readUTF(), in.readUTF());
+                int rawKeys = in.readInt();
+                if (rawKeys > 0) {
+                    entry.rawKeys = new String[rawKeys];
+                    for (int k = 0; k < rawKeys; k++) {
+                        entry.rawKeys[k] = in.readUTF();
+                    }
+                }
+                entry.weight = in.readLong();
+                entry.refs = in.readInt();
+                numbered[i] = entry;
+                entries.put(entry.type + ":" + entry.key, entry);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long songId = in.readLong();
+                long plays = in.readLong();
+                contributions.put(songId, new Contribution(readEntries(in, numbered), plays));
+            }
+            root = readNode(in, numbered);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The prefix is looked up as typed, which also reaches folded keys. Finished words are
+    // matched folded as well, and a word still being typed only as a whole folded word, so
+    // "kaadhal" finds "Kadhal" but "tha" does not fold to "da" and find "Dance".
+    public List<Suggestion> suggest(String prefix, int limit) {
+        List<String> raw = SongTokenizer.tokenizeRaw(prefix);
+        if (raw.isEmpty()) {
+            return List.of();
+        }
+        List<String> folded = new ArrayList<>(raw);
+        folded.replaceAll(SongTokenizer::fold);
+        String rawKey = String.join(" ", raw);
+        String foldedKey = String.join(" ", folded);
+        lock.readLock().lock();
+        try {
+            Entry[] best = new Entry[TOP_K];
+            int size = offerAll(best, 0, top(walk(rawKey, false)));
+            if (SongTokenizer.endsInToken(prefix)) {
+                if (raw.size() > 1) {
+                    String mixedKey = String.join(" ", folded.subList(0, folded.size() - 1))
+                            + " " + raw.get(raw.size() - 1);
+                    size = offerAll(best, size, top(walk(mixedKey, false)));
+                }
+                Node whole = walk(foldedKey, false);
+                if (whole != null) {
+                    size = offerAll(best, size, whole.terminals);
+                    size = offerAll(best, size, top(whole.child(' ')));
+                }
+            } else {
+                size = offerAll(best, size, top(walk(foldedKey, false)));
+            }
+            int n = Math.min(limit, size);
+            List<Suggestion> suggestions = new ArrayList<>(Math.max(n, 0));
+            for (int i = 0; i < n; i++) {
+                Entry e = best[i];
+                suggestions.add(new Suggestion(e.text, e.type.name().toLowerCase(Locale.ROOT), e.weight));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Entry[] top(Node node) {
+        return node != null ? node.top : NO_ENTRIES;
+    }
+
+    private static int offerAll(Entry[] best, int size, Entry[] candidates) {
+        for (Entry e : candidates) {
+            size = offer(best, size, e);
+        }
+        return size;
+    }
+
+    // Caller must hold the write lock. Entries whose weight or terminals changed go into
+    // changed; null when a rebuild computes every top-k afterwards anyway.
+    private void addSong(Song song, Set<Entry> changed) {
+        List<Entry> touched = new ArrayList<>(3);
+        addContribution(touched, Type.TITLE, song.getTitle());
+        addContribution(touched, Type.ARTIST, song.getArtistName());
+        addContribution(touched, Type.ALBUM, song.getAlbumName());
+        for (Entry entry : touched) {
+            entry.weight += song.getPlays();
+        }
+        contributions.put(song.getId(), new Contribution(touched.toArray(NO_ENTRIES), song.getPlays()));
+        if (changed != null) {
+            changed.addAll(touched);
+        }
+    }
+
+    private void addContribution(List<Entry> touched, Type type, String text) {
+        Entry entry = acquire(type, text);
+        if (entry != null) {
+            touched.add(entry);
+        }
+    }
+
+    // Caller must hold the write lock
+    private void removeSong(Long songId, Set<Entry> changed) {
+        Contribution contribution = contributions.remove(songId);
+        if (contribution == null) {
+            return;
+        }
+        for (Entry entry : contribution.entries) {
+            entry.weight -= contribution.plays;
+            if (--entry.refs == 0) {
+                entries.remove(entry.type + ":" + entry.key);
+                entry.forEachKey(key -> forEachSuffix(key, suffix -> {
+                    Node node = walk(suffix, false);
+                    if (node != null) {
+                        node.terminals = without(node.terminals, entry);
+                    }
+                }));
+            }
+            changed.add(entry);
+        }
+    }
+
+    private Entry acquire(Type type, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String key = keyOf(text);
+        if (key.isEmpty()) {
+            return null;
+        }
+        Entry entry = entries.get(type + ":" + key);
+        if (entry == null) {
+            entry = new Entry(type, text.trim(), key);
+            entries.put(type + ":" + key, entry);
+            insert(entry, key);
+        }
+        String rawKey = String.join(" ", SongTokenizer.tokenizeRaw(text));
+        if (!rawKey.equals(key) && !Arrays.asList(entry.rawKeys).contains(rawKey)) {
+            entry.rawKeys = Arrays.copyOf(entry.rawKeys, entry.rawKeys.length + 1);
+            entry.rawKeys[entry.rawKeys.length - 1] = rawKey;
+            insert(entry, rawKey);
+        }
+        entry.refs++;
+        return entry;
+    }
+
+    // Adds the entry as a terminal under every word start of key
+    private void insert(Entry entry, String key) {
+        forEachSuffix(key, suffix -> {
+            Node node = walk(suffix, true);
+            if (!Arrays.asList(node.terminals).contains(entry)) {
+                node.terminals = with(node.terminals, entry);
+            }
+        });
+    }
+
+    private record PathStep(Node node, Node parent, char key, int depth) {}
+
+    // Re-derives the cached top-k on every node along the entries' suffix paths, each node
+    // once and children before parents, pruning nodes that became empty
+    private void recomputePaths(Collection<Entry> changed) {
+        Map<Node, PathStep> steps = new IdentityHashMap<>();
+        steps.put(root, new PathStep(root, null, (char) 0, 0));
+        for (Entry entry : changed) {
+            entry.forEachKey(key -> forEachSuffix(key, suffix -> {
+                Node node = root;
+                for (int depth = 0; depth < suffix.length(); depth++) {
+                    Node next = node.child(suffix.charAt(depth));
+                    if (next == null) {
+                        break;
+                    }
+                    steps.putIfAbsent(next, new PathStep(next, node, suffix.charAt(depth), depth + 1));
+                    node = next;
+                }
+            }));
+        }
+        List<PathStep> deepestFirst = new ArrayList<>(steps.values());
+        deepestFirst.sort(Comparator.comparingInt(PathStep::depth).reversed());
+        for (PathStep step : deepestFirst) {
+            recomputeTop(step.node());
+            if (step.parent() != null && step.node().isEmpty()) {
+                step.parent().removeChild(step.key());
+            }
+        }
+    }
+
+    private void computeTops(Node node) {
+        for (Node child : node.children) {
+            computeTops(child);
+        }
+        recomputeTop(node);
+    }
+
+    // Child tops are already ranked, so each is read only until it can no longer beat the
+    // current k-th entry; no sorting or per-node allocation beyond the result
+    private void recomputeTop(Node node) {
+        Entry[] best = new Entry[TOP_K];
+        int size = 0;
+        for (Entry e : node.terminals) {
+            size = offer(best, size, e);
+        }
+        for (Node child : node.children) {
+            for (Entry e : child.top) {
+                if (size == TOP_K && BY_WEIGHT.compare(e, best[TOP_K - 1]) >= 0) {
+                    break;
+                }
+                size = offer(best, size, e);
+            }
+        }
+        node.top = size == 0 ? NO_ENTRIES : Arrays.copyOf(best, size);
+    }
+
+    // Inserts e into the ranked best[0..size) unless already there, dropping the last entry
+    // when full; ties keep the earlier entry first. Returns the new size.
+    private static int offer(Entry[] best, int size, Entry e) {
+        for (int i = 0; i < size; i++) {
+            if (best[i] == e) {
+                return size;
+            }
+        }
+        int at = size;
+        while (at > 0 && BY_WEIGHT.compare(e, best[at - 1]) < 0) {
+            at--;
+        }
+        if (at == TOP_K) {
+            return size;
+        }
+        int newSize = Math.min(size + 1, TOP_K);
+        System.arraycopy(best, at, best, at + 1, newSize - at - 1);
+        best[at] = e;
+        return newSize;
+    }
+
+    private static void writeNode(DataOutput out, Node node, Map<Entry, Integer> numbers) throws IOException {
+        writeEntries(out, node.terminals, numbers);
+        writeEntries(out, node.top, numbers);
+        out.writeInt(node.keys.length);
+        for (int i = 0; i < node.keys.length; i++) {
+            out.writeChar(node.keys[i]);
+            writeNode(out, node.children[i], numbers);
+        }
+    }
+
+    private static Node readNode(DataInput in, Entry[] numbered) throws IOException {
+        Node node = new Node();
+        node.terminals = readEntries(in, numbered);
+        node.top = readEntries(in, numbered);
+        int children = in.readInt();
+        if (children > 0) {
+            node.keys = new char[children];
+            node.children = new Node[children];
+            for (int i = 0; i < children; i++) {
+                node.keys[i] = in.readChar();
+                node.children[i] = readNode(in, numbered);
+            }
+        }
+        return node;
+    }
+
+    private static void writeEntries(DataOutput out, Entry[] array, Map<Entry, Integer> numbers) throws IOException {
+        out.writeInt(array.length);
+        for (Entry entry : array) {
+            out.writeInt(numbers.get(entry));
+        }
+    }
+
+    private static Entry[] readEntries(DataInput in, Entry[] numbered) throws IOException {
+        int length = in.readInt();
+        if (length == 0) {
+            return NO_ENTRIES;
+        }
+        Entry[] array = new Entry[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = numbered[in.readInt()];
+        }
+        return array;
+    }
+
+    private Node walk(String key, boolean create) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = create ? node.getOrAddChild(key.charAt(i)) : node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static void forEachSuffix(String key, Consumer<String> action) {
+        for (int i = 0; i < key.length(); i++) {
+            if (i == 0 || key.charAt(i - 1) == ' ') {
+                action.accept(key.substring(i));
+            }
+        }
+    }
+
+    private static String keyOf(String text) {
+        return String.join(" ", SongTokenizer.tokenize(text));
+    }
+
+    private static Entry[] with(Entry[] array, Entry entry) {
+        Entry[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = entry;
+        return copy;
+    }
+
+    private static Entry[] without(Entry[] array, Entry entry) {
+        List<Entry> kept = new ArrayList<>(array.length);
+        for (Entry e : array) {
+            if (e != entry) kept.add(e);
+        }
+        return kept.toArray(NO_ENTRIES);
+    }
+}
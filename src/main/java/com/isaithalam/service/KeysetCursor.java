@@ -0,0 +1,46 @@
+package com.isaithalam.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque page cursors for keyset pagination: the sort key of the last row served,
+// base64url-encoded so clients pass it back as a token instead of building one.
+// The next page is "rows after this key", which costs the same at any depth and does not
+// skip or repeat rows when earlier ones are inserted or deleted between requests.
+final class KeysetCursor {
+
+    private KeysetCursor() {}
+
+    static String encode(long... keys) {
+        StringBuilder sb = new StringBuilder();
+        for (long key : keys) {
+            if (sb.length() > 0) {
+                sb.append(':');
+            }
+            sb.append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Throws IllegalArgumentException for anything encode() could not have produced
+    static long[] decode(String cursor, int keyCount) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != keyCount) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        long[] keys = new long[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            try {
+                keys[i] = Long.parseLong(parts[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        return keys;
+    }
+}
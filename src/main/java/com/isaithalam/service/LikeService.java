@@ -0,0 +1,148 @@
+package com.isaithalam.service;
+
+import com.isaithalam.cache.LikedSongSet;
+import com.isaithalam.model.SongLike;
+import com.isaithalam.repository.SongLikeRepository;
+import com.isaithalam.repository.SongRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Per-user likes. song_likes is the record; each recently active user's liked song ids
+// are also held in memory as a LikedSongSet, so "is this liked" for a whole page of songs
+// and the liked list itself are answered without a query. A user's set is loaded on
+// first use and the least recently used users are dropped past max-users.
+@Service
+public class LikeService {
+    // Visitors who are not signed in share the guest's likes; user ids start at 1, so no
+    // account has this one
+    public static final long GUEST_USER_ID = 0L;
+
+    private static final class UserLikes {
+        // A lock rather than synchronized: toggles do JDBC I/O and may run on a virtual thread
+        final ReentrantLock lock = new ReentrantLock();
+        volatile LikedSongSet songs;
+    }
+
+    private final SongLikeRepository songLikeRepository;
+    private final SongRepository songRepository;
+    private final int maxUsers;
+    // Guarded by itself; access-ordered so iteration starts at the least recently used user
+    private final LinkedHashMap<Long, UserLikes> users = new LinkedHashMap<>(16, 0.75f, true);
+
+    public LikeService(SongLikeRepository songLikeRepository, SongRepository songRepository,
+                       @Value("${isaithalam.likes.max-users:10000}") int maxUsers, MeterRegistry meterRegistry) {
+        this.songLikeRepository = songLikeRepository;
+        this.songRepository = songRepository;
+        this.maxUsers = maxUsers;
+        meterRegistry.gauge("isaithalam.likes.cached.users", users, u -> {
+            synchronized (u) {
+                return u.size();
+            }
+        });
+    }
+
+    // The ids among songIds that the user likes, in the given order
+    public List<Long> likedAmong(long userId, List<Long> songIds) {
+        LikedSongSet songs = likedSongs(userId);
+        List<Long> liked = new ArrayList<>();
+        for (Long songId : songIds) {
+            if (songId != null && songs.contains(songId)) {
+                liked.add(songId);
+            }
+        }
+        return liked;
+    }
+
+    // Up to max liked song ids after afterId, in id order
+    public long[] likedAfter(long userId, long afterId, int max) {
+        return likedSongs(userId).after(afterId, max);
+    }
+
+    // Whether the song is liked after the toggle, or null if there is no such song
+    public Boolean toggle(long userId, long songId) {
+        UserLikes likes = entry(userId);
+        likes.lock.lock();
+        try {
+            LikedSongSet songs = load(likes, userId);
+            if (songs.contains(songId)) {
+                songLikeRepository.deleteByUserIdAndSongId(userId, songId);
+                likes.songs = songs.without(songId);
+                dropIfReplaced(userId, likes);
+                return false;
+            }
+            if (!songRepository.existsById(songId)) {
+                return null;
+            }
+            try {
+                songLikeRepository.save(new SongLike(userId, songId, Instant.now()));
+            } catch (DataIntegrityViolationException e) {
+                // A toggle holding an evicted copy of this user's entry stored it first; liked either way
+            }
+            likes.songs = songs.with(songId);
+            dropIfReplaced(userId, likes);
+            return true;
+        } finally {
+            likes.lock.unlock();
+        }
+    }
+
+    private LikedSongSet likedSongs(long userId) {
+        UserLikes likes = entry(userId);
+        LikedSongSet songs = likes.songs;
+        if (songs != null) {
+            return songs;
+        }
+        likes.lock.lock();
+        try {
+            return load(likes, userId);
+        } finally {
+            likes.lock.unlock();
+        }
+    }
+
+    // Caller holds likes.lock
+    private LikedSongSet load(UserLikes likes, long userId) {
+        LikedSongSet songs = likes.songs;
+        if (songs == null) {
+            List<Long> ids = songLikeRepository.findSongIds(userId);
+            songs = ids.isEmpty() ? LikedSongSet.EMPTY : LikedSongSet.of(ids);
+            likes.songs = songs;
+        }
+        return songs;
+    }
+
+    // Caller holds likes.lock and has just written to song_likes. If likes was evicted
+    // meanwhile, a newer entry for the user may have loaded before the write landed and so
+    // miss it; drop that entry so the next read loads again, this time seeing the write.
+    private void dropIfReplaced(long userId, UserLikes likes) {
+        synchronized (users) {
+            UserLikes current = users.get(userId);
+            if (current != null && current != likes) {
+                users.remove(userId);
+            }
+        }
+    }
+
+    private UserLikes entry(long userId) {
+        synchronized (users) {
+            UserLikes likes = users.computeIfAbsent(userId, id -> new UserLikes());
+            if (users.size() > maxUsers) {
+                // Just touched, so never the user being returned
+                Iterator<Map.Entry<Long, UserLikes>> eldest = users.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            return likes;
+        }
+    }
+}
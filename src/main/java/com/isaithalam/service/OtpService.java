@@ -1,5 +1,7 @@
 package com.isaithalam.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import java.util.Map;
 import java.util.Random;
@@ -7,6 +9,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class OtpService {
+    private static final Logger log = LoggerFactory.getLogger(OtpService.class);
+
     private final Map<String, OtpEntry> otpStore = new ConcurrentHashMap<>();
     private final Random random = new Random();
 
@@ -33,12 +37,15 @@ public class OtpService {
         String otp = String.format("%06d", random.nextInt(999999));
         otpStore.put(phone, new OtpEntry(otp));
         // In production, send via Twilio/SMS gateway
-        System.out.println("========================================");
-        System.out.println("  OTP for " + phone + ": " + otp);
-        System.out.println("========================================");
+        log.info("OTP for {}: {}", phone, otp);
         return otp;
     }
 
+    // Includes expired codes that were never verified
+    public int storeSize() {
+        return otpStore.size();
+    }
+
     public boolean verifyOtp(String phone, String otp) {
         if (otp == null || otp.length() != 6 || phone == null) {
             return false;
@@ -0,0 +1,185 @@
+package com.isaithalam.service;
+
+import com.isaithalam.search.CatalogueIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind play counting. A play only bumps a striped in-memory counter; a
+// scheduled flush turns all pending increments into one JDBC batch of
+// "plays = plays + ?" updates, so concurrent plays never lose counts and the request
+// path never touches the songs row. Song.plays is not updatable through JPA for the
+// same reason. Each flush is timed as isaithalam.plays.flush, index updates included.
+// Only songs played since the previous flush are held in memory: an entry with nothing
+// left to write is dropped, and the song's next play reads its count from the table.
+@Service
+public class PlayCounterService {
+    private static final Logger log = LoggerFactory.getLogger(PlayCounterService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<CatalogueIndex> indexes;
+    private final List<PlayListener> listeners;
+    private final Timer flushTimer;
+    private final Counter flushedPlays;
+
+    // A lock rather than synchronized: flushes do JDBC I/O and may run on a virtual thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Map<Long, SongPlays> pending = new ConcurrentHashMap<>();
+
+    // A song's unwritten plays and its count as of the last write. Before dropping an
+    // entry the flush marks it retiring; a play that finds it retiring waits for the flush
+    // to keep or drop it, and if dropped records itself on a new entry instead.
+    private static final class SongPlays {
+        final LongAdder unflushed = new LongAdder();
+        // Plays that found the entry live and may not have reached unflushed yet
+        final LongAdder recording = new LongAdder();
+        // Written only by the flush, under flushLock
+        volatile long persisted;
+        volatile boolean retiring;
+        volatile boolean dropped;
+
+        SongPlays(long persisted) {
+            this.persisted = persisted;
+        }
+    }
+
+    // Notified synchronously on every accepted play, so implementations must be cheap
+    public interface PlayListener {
+        void onPlay(Long songId, long timestampMs);
+    }
+
+    public PlayCounterService(JdbcTemplate jdbcTemplate, List<CatalogueIndex> indexes, List<PlayListener> listeners,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexes = indexes;
+        this.listeners = listeners;
+        this.flushTimer = Timer.builder("isaithalam.plays.flush")
+                .description("Batched play count writes, including catalogue index updates")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushedPlays = meterRegistry.counter("isaithalam.plays.flushed");
+    }
+
+    // Returns the song's current play count, or null if there is no such song
+    public Long recordPlay(Long songId) {
+        SongPlays plays = pending.get(songId);
+        if (plays == null) {
+            List<Long> counts = jdbcTemplate.queryForList("SELECT plays FROM songs WHERE id = ?", Long.class, songId);
+            if (counts.isEmpty()) {
+                return null;
+            }
+            plays = pending.computeIfAbsent(songId, id -> new SongPlays(counts.get(0)));
+        }
+        while (true) {
+            plays.recording.increment();
+            if (!plays.retiring) {
+                plays.unflushed.increment();
+                plays.recording.decrement();
+                break;
+            }
+            plays.recording.decrement();
+            while (plays.retiring && !plays.dropped) {
+                Thread.onSpinWait();
+            }
+            if (plays.dropped) {
+                SongPlays dropped = plays;
+                plays = pending.computeIfAbsent(songId, id -> new SongPlays(dropped.persisted));
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (PlayListener listener : listeners) {
+            listener.onPlay(songId, now);
+        }
+        return plays.persisted + plays.unflushed.sum();
+    }
+
+    public long pendingPlays(Long songId) {
+        SongPlays plays = pending.get(songId);
+        return plays != null ? plays.unflushed.sum() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${isaithalam.plays.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, SongPlays> e : pending.entrySet()) {
+            long delta = e.getValue().unflushed.sum();
+            if (delta > 0) {
+                ids.add(e.getKey());
+                batch.add(new Object[] {delta, e.getKey()});
+            } else {
+                // Written by an earlier flush and not played since
+                dropIfIdle(e.getKey(), e.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        flushTimer.record(() -> writeBatch(ids, batch));
+    }
+
+    private void writeBatch(List<Long> ids, List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate("UPDATE songs SET plays = plays + ? WHERE id = ?", batch);
+        } catch (DataAccessException e) {
+            // Counts stay pending and are retried on the next flush
+            log.warn("Play count flush failed: {}", e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            long delta = (Long) batch.get(i)[0];
+            // Subtract exactly what was written; increments made since then stay pending
+            SongPlays plays = pending.get(id);
+            plays.persisted += delta;
+            plays.unflushed.add(-delta);
+            flushedPlays.increment(delta);
+            for (CatalogueIndex index : indexes) {
+                index.addPlays(id, delta);
+            }
+        }
+    }
+
+    // Caller must hold flushLock. Marking the entry before the check means a play either
+    // shows up in the check or sees the mark and waits for the outcome. A dropped entry
+    // stays marked, so a play still holding it moves to a new entry.
+    private void dropIfIdle(Long songId, SongPlays plays) {
+        plays.retiring = true;
+        if (plays.recording.sum() == 0 && plays.unflushed.sum() == 0) {
+            pending.remove(songId, plays);
+            plays.dropped = true;
+        } else {
+            plays.retiring = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -1,19 +1,35 @@
 package com.isaithalam.service;
 
+import com.isaithalam.dto.CursorPage;
+import com.isaithalam.dto.PlaylistSummary;
 import com.isaithalam.model.Playlist;
+import com.isaithalam.model.PlaylistEntry;
 import com.isaithalam.model.Song;
+import com.isaithalam.repository.PlaylistEntryRepository;
 import com.isaithalam.repository.PlaylistRepository;
 import com.isaithalam.repository.SongRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class PlaylistService {
+    public static final int MAX_PAGE_SIZE = 200;
+    // Spacing between consecutive positions; inserts take the midpoint of their neighbours
+    public static final long POSITION_GAP = 1024;
+
     private final PlaylistRepository playlistRepository;
+    private final PlaylistEntryRepository playlistEntryRepository;
     private final SongRepository songRepository;
 
-    public PlaylistService(PlaylistRepository playlistRepository, SongRepository songRepository) {
+    public PlaylistService(PlaylistRepository playlistRepository, PlaylistEntryRepository playlistEntryRepository,
+                           SongRepository songRepository) {
         this.playlistRepository = playlistRepository;
+        this.playlistEntryRepository = playlistEntryRepository;
         this.songRepository = songRepository;
     }
 
@@ -21,45 +37,133 @@ public class PlaylistService {
         return playlistRepository.findByUserId(userId);
     }
 
-    public List<Playlist> getAllPlaylists() {
-        return playlistRepository.findAll();
+    public List<PlaylistSummary> getAllPlaylists() {
+        return playlistRepository.findAllSummaries();
+    }
+
+    public PlaylistSummary getPlaylistById(Long id) {
+        return playlistRepository.findSummaryById(id).orElse(null);
+    }
+
+    // Null if the playlist does not exist. Existence is only checked when the page comes
+    // back empty, so a page costs its own query and at most a count.
+    public Page<Song> getPlaylistSongs(Long id, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        Page<Song> songs = playlistEntryRepository.findSongs(id, pageRequest);
+        if (!songs.hasContent() && !playlistRepository.existsById(id)) {
+            return null;
+        }
+        return songs;
+    }
+
+    // Keyset variant: cost does not grow with depth into the playlist. Null if the playlist
+    // does not exist; throws IllegalArgumentException for a malformed cursor.
+    public CursorPage<Song> getPlaylistSongs(Long id, String cursor, int size) {
+        long[] after = cursor == null || cursor.isEmpty() ? new long[] {Long.MIN_VALUE, Long.MIN_VALUE}
+                : KeysetCursor.decode(cursor, 2);
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<Object[]> rows = playlistEntryRepository.findSongsAfter(id, after[0], after[1], Limit.of(limit + 1));
+        if (rows.isEmpty() && !playlistRepository.existsById(id)) {
+            return null;
+        }
+        List<Song> songs = new ArrayList<>(Math.min(rows.size(), limit));
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            songs.add((Song) rows.get(i)[2]);
+        }
+        String next = null;
+        if (rows.size() > limit) {
+            Object[] last = rows.get(limit - 1);
+            next = KeysetCursor.encode((Long) last[0], (Long) last[1]);
+        }
+        return new CursorPage<>(songs, next);
     }
 
-    public Playlist getPlaylistById(Long id) {
-        return playlistRepository.findById(id).orElse(null);
+    // Cursor continuing an offset page in keyset mode, so clients can switch after page 0
+    public String cursorAfter(Long playlistId, Song lastSong) {
+        return playlistEntryRepository.findByPlaylistIdAndSongId(playlistId, lastSong.getId())
+                .map(entry -> KeysetCursor.encode(entry.getPosition(), entry.getId()))
+                .orElse(null);
     }
 
-    public Playlist createPlaylist(String name, String description, Long userId) {
+    public PlaylistSummary createPlaylist(String name, String description, Long userId) {
         Playlist playlist = new Playlist();
         playlist.setName(name);
         playlist.setDescription(description);
         playlist.setUserId(userId);
         playlist.setCoverUrl("/images/playlist-default.svg");
-        return playlistRepository.save(playlist);
+        playlist = playlistRepository.save(playlist);
+        return new PlaylistSummary(playlist.getId(), playlist.getName(), playlist.getDescription(),
+                playlist.getCoverUrl(), playlist.getUserId(), 0, null);
     }
 
-    public Playlist addSongToPlaylist(Long playlistId, Long songId) {
-        Playlist playlist = playlistRepository.findById(playlistId).orElse(null);
-        Song song = songRepository.findById(songId).orElse(null);
-        if (playlist != null && song != null) {
-            if (!playlist.getSongs().contains(song)) {
-                playlist.getSongs().add(song);
-                playlistRepository.save(playlist);
+    // Appends the song, or inserts it at the given 0-based index. A song already in the
+    // playlist is left alone without an index and moved to it with one.
+    @Transactional
+    public PlaylistSummary addSongToPlaylist(Long playlistId, Long songId, Integer index) {
+        if (!playlistRepository.existsById(playlistId)) {
+            return null;
+        }
+        PlaylistEntry entry = playlistEntryRepository.findByPlaylistIdAndSongId(playlistId, songId).orElse(null);
+        if (entry == null) {
+            if (!songRepository.existsById(songId)) {
+                return playlistRepository.findSummaryById(playlistId).orElse(null);
             }
+            entry = new PlaylistEntry(playlistId, songId, 0);
+        } else if (index == null) {
+            return playlistRepository.findSummaryById(playlistId).orElse(null);
         }
-        return playlist;
+
+        Long excludeId = entry.getId() != null ? entry.getId() : -1L;
+        entry.setPosition(index == null ? appendPosition(playlistId) : positionAt(playlistId, index, excludeId));
+        playlistEntryRepository.save(entry);
+        return playlistRepository.findSummaryById(playlistId).orElse(null);
     }
 
-    public Playlist removeSongFromPlaylist(Long playlistId, Long songId) {
-        Playlist playlist = playlistRepository.findById(playlistId).orElse(null);
-        if (playlist != null) {
-            playlist.getSongs().removeIf(s -> s.getId().equals(songId));
-            playlistRepository.save(playlist);
+    @Transactional
+    public PlaylistSummary removeSongFromPlaylist(Long playlistId, Long songId) {
+        if (!playlistRepository.existsById(playlistId)) {
+            return null;
         }
-        return playlist;
+        playlistEntryRepository.deleteByPlaylistIdAndSongId(playlistId, songId);
+        return playlistRepository.findSummaryById(playlistId).orElse(null);
     }
 
+    @Transactional
     public void deletePlaylist(Long id) {
+        playlistEntryRepository.deleteByPlaylistId(id);
         playlistRepository.deleteById(id);
     }
+
+    private long appendPosition(Long playlistId) {
+        Long max = playlistEntryRepository.findMaxPosition(playlistId);
+        return max == null ? POSITION_GAP : max + POSITION_GAP;
+    }
+
+    private long positionAt(Long playlistId, int index, Long excludeId) {
+        for (int attempt = 0; ; attempt++) {
+            long lower;
+            Long upper;
+            if (index <= 0) {
+                List<Long> first = playlistEntryRepository.findPositions(playlistId, excludeId, 0, 1);
+                lower = 0;
+                upper = first.isEmpty() ? null : first.get(0);
+            } else {
+                List<Long> around = playlistEntryRepository.findPositions(playlistId, excludeId, index - 1, 2);
+                if (around.isEmpty()) {
+                    return appendPosition(playlistId);
+                }
+                lower = around.get(0);
+                upper = around.size() > 1 ? around.get(1) : null;
+            }
+
+            if (upper == null) {
+                return lower + POSITION_GAP;
+            }
+            if (upper - lower >= 2 || attempt > 0) {
+                return lower + (upper - lower) / 2;
+            }
+            // Neighbours are adjacent: spread the playlist out once, then take the midpoint
+            playlistEntryRepository.renumber(playlistId, POSITION_GAP);
+        }
+    }
 }
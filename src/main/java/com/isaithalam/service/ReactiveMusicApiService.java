@@ -0,0 +1,80 @@
+package com.isaithalam.service;
+
+import com.isaithalam.cache.MusicApiCaches;
+import com.isaithalam.cache.ResultCache;
+import com.isaithalam.model.Song;
+import com.isaithalam.provider.MusicProvider;
+import com.isaithalam.provider.TrackLookup;
+import com.isaithalam.resilience.CircuitBreaker;
+import com.isaithalam.resilience.ProviderCircuitBreakers;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// Non-blocking counterpart of MusicApiService, active in reactive execution mode. Same
+// providers, same caches and the same streaming SongJsonReader mapping; the only
+// difference is that no thread waits while a request is on the wire. Cache misses go
+// through the same per-provider circuit breakers as the blocking client. Responses are
+// materialized through SongIdentityService before caching, as in the blocking client; that
+// is JDBC work, so it is moved off the event loop.
+@Service
+@ConditionalOnProperty(name = "isaithalam.execution.mode", havingValue = "reactive")
+public class ReactiveMusicApiService {
+
+    private final MusicProvider saavn;
+    private final TrackLookup itunes;
+    private final MusicApiCaches caches;
+    private final SongIdentityService songIdentityService;
+    private final CircuitBreaker saavnBreaker;
+    private final CircuitBreaker itunesBreaker;
+
+    public ReactiveMusicApiService(@Qualifier("saavnProvider") MusicProvider saavn,
+                                   @Qualifier("itunesProvider") TrackLookup itunes,
+                                   MusicApiCaches caches, SongIdentityService songIdentityService,
+                                   ProviderCircuitBreakers breakers) {
+        this.saavn = saavn;
+        this.itunes = itunes;
+        this.caches = caches;
+        this.songIdentityService = songIdentityService;
+        this.saavnBreaker = breakers.saavn();
+        this.itunesBreaker = breakers.itunes();
+    }
+
+    public Mono<List<Song>> searchSaavn(String query) {
+        String key = MusicApiCaches.normalizeQuery(query);
+        return cached(caches.saavnSearch(), key,
+                () -> resolved(saavn, ProviderCircuitBreakers.guard(saavnBreaker, saavn.searchAsync(key))));
+    }
+
+    public Mono<List<Song>> searchItunes(String query) {
+        String key = MusicApiCaches.normalizeQuery(query);
+        return cached(caches.itunesSearch(), key,
+                () -> resolved(itunes, ProviderCircuitBreakers.guard(itunesBreaker, itunes.searchAsync(key))));
+    }
+
+    // Same as MusicApiService.getItunesTrack: a track materialized before is served locally
+    public Mono<Song> getItunesTrack(Long id) {
+        Mono<Song> upstream = cached(caches.lookup(), id,
+                () -> ProviderCircuitBreakers.guard(itunesBreaker, itunes.lookupAsync(id))
+                        .publishOn(Schedulers.boundedElastic())
+                        .mapNotNull(song -> songIdentityService.resolve(itunes.getName(), song)));
+        return Mono.fromCallable(() -> songIdentityService.find(itunes.getName(), String.valueOf(id)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(upstream);
+    }
+
+    private Mono<List<Song>> resolved(MusicProvider provider, Mono<List<Song>> response) {
+        return response.publishOn(Schedulers.boundedElastic())
+                .map(songs -> songIdentityService.resolve(provider.getName(), songs));
+    }
+
+    private <K, V> Mono<V> cached(ResultCache<K, V> cache, K key, Supplier<Mono<V>> loader) {
+        // Concurrent misses on one key share a single upstream call, as in the blocking client
+        return Mono.fromFuture(() -> cache.getAsync(key, () -> loader.get().toFuture()));
+    }
+}
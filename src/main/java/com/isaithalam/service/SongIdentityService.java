@@ -0,0 +1,103 @@
+package com.isaithalam.service;
+
+import com.isaithalam.importer.CatalogueImporter;
+import com.isaithalam.model.Song;
+import com.isaithalam.repository.SongRepository;
+import com.isaithalam.search.CatalogueIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Gives songs from upstream providers a stable local id. A provider result is keyed by
+// provider name and the provider's own id: the first time a key is seen the song is
+// inserted into the catalogue, after that its row is found again and refreshed with the
+// provider's latest metadata. MusicApiService resolves each upstream response as one
+// batch on its cache-miss path, so cached results already carry their ids and repeat
+// searches cost nothing here. Materialized songs are indexed like imported ones, so they
+// can be played, liked and added to playlists, and later show up in local search.
+@Service
+public class SongIdentityService {
+    private static final Logger log = LoggerFactory.getLogger(SongIdentityService.class);
+
+    private final CatalogueImporter importer;
+    private final SongRepository songRepository;
+    private final List<CatalogueIndex> indexes;
+    private final Counter insertedSongs;
+    private final Counter updatedSongs;
+    private final Counter skippedSongs;
+
+    public SongIdentityService(CatalogueImporter importer, SongRepository songRepository,
+                               List<CatalogueIndex> indexes, MeterRegistry meterRegistry) {
+        this.importer = importer;
+        this.songRepository = songRepository;
+        this.indexes = indexes;
+        this.insertedSongs = meterRegistry.counter("isaithalam.identity.songs", "result", "inserted");
+        this.updatedSongs = meterRegistry.counter("isaithalam.identity.songs", "result", "updated");
+        this.skippedSongs = meterRegistry.counter("isaithalam.identity.songs", "result", "skipped");
+    }
+
+    // The source's songs in their original order, each once, with the id and play count
+    // of its local row. Songs that cannot be stored (no provider id, oversized fields,
+    // audio on a host the media proxy does not allow) are dropped.
+    public List<Song> resolve(String source, List<Song> songs) {
+        if (songs == null || songs.isEmpty()) {
+            return songs;
+        }
+        Map<String, Song> unique = new LinkedHashMap<>();
+        for (Song song : songs) {
+            String reason = importer.rejectReason(song);
+            if (reason != null) {
+                log.debug("Not materializing {} song '{}': {}", source, song.getExternalId(), reason);
+                skippedSongs.increment();
+                continue;
+            }
+            if (unique.putIfAbsent(song.getExternalId(), song) == null) {
+                // Upstream play counts are not ours; a new row starts from zero
+                song.setId(null);
+                song.setPlays(0);
+            }
+        }
+        if (unique.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Song> batch = new ArrayList<>(unique.values());
+        CatalogueImporter.ChunkResult result;
+        try {
+            result = importer.write(source, batch);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent resolve inserted some of these first; the retry finds their rows
+            result = importer.write(source, batch);
+        }
+        // Written with plain JDBC, so entity events never see these rows
+        if (!result.getWritten().isEmpty()) {
+            for (CatalogueIndex index : indexes) {
+                index.indexAll(result.getWritten());
+            }
+        }
+        insertedSongs.increment(result.getInserted());
+        updatedSongs.increment(result.getUpdated());
+        return batch;
+    }
+
+    public Song resolve(String source, Song song) {
+        if (song == null) {
+            return null;
+        }
+        List<Song> resolved = resolve(source, List.of(song));
+        return resolved.isEmpty() ? null : resolved.get(0);
+    }
+
+    // The local row of a song already materialized from the source, or null
+    public Song find(String source, String externalId) {
+        return songRepository.findBySourceAndExternalId(source, externalId).orElse(null);
+    }
+}
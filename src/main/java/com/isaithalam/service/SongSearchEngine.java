@@ -0,0 +1,305 @@
+package com.isaithalam.service;
+
+import com.isaithalam.model.Song;
+import com.isaithalam.repository.SongRepository;
+import com.isaithalam.search.SongSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Queries the local catalogue (via SongSearchIndex) and Saavn concurrently and merges
+// whatever arrived before the per-request deadline. iTunes is a fallback: it is only
+// queried, within what is left of the deadline, when Saavn failed or timed out or the
+// local and Saavn results together are fewer than fallback-min-results. Sources still
+// running at the deadline are cancelled. A provider whose circuit breaker is open fails
+// at once, so the request does not wait on it.
+// Each source is timed as isaithalam.search.source{source, outcome} from fan-out to
+// completion or cancellation, which shows whether a slow search is the local catalogue
+// or an upstream.
+@Service
+public class SongSearchEngine {
+    private static final Logger log = LoggerFactory.getLogger(SongSearchEngine.class);
+
+    private final SongRepository songRepository;
+    private final SongSearchIndex songSearchIndex;
+    private final MusicApiService musicApiService;
+    // Present only in reactive execution mode
+    private final ReactiveMusicApiService reactiveMusicApiService;
+    private final Executor executor;
+    private final AutoCloseable executorHandle;
+    private final long deadlineMs;
+    private final int localLimit;
+    private final int fallbackMinResults;
+    private final MeterRegistry meterRegistry;
+
+    public SongSearchEngine(SongRepository songRepository, SongSearchIndex songSearchIndex,
+                            MusicApiService musicApiService,
+                            ObjectProvider<ReactiveMusicApiService> reactiveMusicApiService,
+                            @Value("${isaithalam.search.deadline-ms:3000}") long deadlineMs,
+                            @Value("${isaithalam.search.local-limit:50}") int localLimit,
+                            @Value("${isaithalam.search.fallback-min-results:10}") int fallbackMinResults,
+                            @Value("${isaithalam.search.threads:32}") int threads,
+                            @Value("${isaithalam.search.queue-capacity:256}") int queueCapacity,
+                            @Value("${isaithalam.search.virtual-max-in-flight:500}") int virtualMaxInFlight,
+                            Environment environment, MeterRegistry meterRegistry) {
+        this.songRepository = songRepository;
+        this.songSearchIndex = songSearchIndex;
+        this.musicApiService = musicApiService;
+        this.reactiveMusicApiService = reactiveMusicApiService.getIfAvailable();
+        this.deadlineMs = deadlineMs;
+        this.localLimit = localLimit;
+        this.fallbackMinResults = fallbackMinResults;
+        this.meterRegistry = meterRegistry;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("search-fanout-");
+            virtual.setVirtualThreads(true);
+            this.executor = admissionLimited(virtual, virtualMaxInFlight);
+            this.executorHandle = virtual;
+        } else {
+            ThreadPoolExecutor pool = boundedPool(threads, queueCapacity);
+            this.executor = pool;
+            this.executorHandle = pool::shutdownNow;
+        }
+    }
+
+    // With spring.threads.virtual.enabled on Java 21 every source gets its own virtual
+    // thread, so a blocked upstream call parks cheaply instead of holding a pool slot.
+    // Threads are free but the work is not: past the limit sources fail fast, as they do
+    // when the platform pool's queue is full.
+    private static Executor admissionLimited(Executor virtual, int maxInFlight) {
+        Semaphore permits = new Semaphore(maxInFlight);
+        return task -> {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Search fan-out saturated");
+            }
+            try {
+                virtual.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        };
+    }
+
+    private static ThreadPoolExecutor boundedPool(int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "search-fanout-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public List<Song> search(String query) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        CompletableFuture<List<Song>> local = timed(submit(() -> searchLocal(query)), "local");
+        CompletableFuture<List<Song>> saavn = timed(submit(() -> musicApiService.searchSaavn(query)), "saavn");
+
+        List<Song> localResults = await(local, deadline, "local");
+        List<Song> saavnResults = await(saavn, deadline, "saavn");
+        local.cancel(true);
+        saavn.cancel(true);
+        List<Song> merged = merge(localResults, saavnResults);
+
+        if (needsFallback(saavnResults, merged) && deadline - System.nanoTime() > 0) {
+            CompletableFuture<List<Song>> itunes = timed(submit(() -> musicApiService.searchItunes(query)), "itunes");
+            List<Song> itunesResults = await(itunes, deadline, "itunes");
+            itunes.cancel(true);
+            merged = merge(merged, itunesResults);
+        }
+        return merged;
+    }
+
+    private boolean needsFallback(List<Song> saavnResults, List<Song> merged) {
+        return saavnResults == null || merged.size() < fallbackMinResults;
+    }
+
+    // Same merge as search(), but in reactive mode the upstream calls hold no thread while
+    // in flight; only the local lookup runs on the fan-out pool. In blocking mode this is
+    // search() on the calling thread.
+    public CompletableFuture<List<Song>> searchAsync(String query) {
+        if (reactiveMusicApiService == null) {
+            return CompletableFuture.completedFuture(search(query));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        CompletableFuture<List<Song>> localTask = timed(submit(() -> searchLocal(query)), "local");
+        CompletableFuture<List<Song>> local = localTask.copy()
+                .completeOnTimeout(null, deadlineMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Search source 'local' failed: {}", e.getMessage());
+                    return null;
+                });
+        // No-op once the lookup has finished; at the deadline it stops the lookup
+        local.whenComplete((songs, e) -> localTask.cancel(true));
+        // The timeout in upstream() cancels the subscription, and with it the upstream call
+        CompletableFuture<List<Song>> saavn = upstream(reactiveMusicApiService.searchSaavn(query),
+                Duration.ofMillis(deadlineMs), "saavn");
+
+        return local.thenCombine(saavn, (l, s) -> {
+            List<Song> merged = merge(l, s);
+            long remaining = deadline - System.nanoTime();
+            if (!needsFallback(s, merged) || remaining <= 0) {
+                return CompletableFuture.completedFuture(merged);
+            }
+            return upstream(reactiveMusicApiService.searchItunes(query), Duration.ofNanos(remaining), "itunes")
+                    .thenApply(i -> merge(merged, i));
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<List<Song>> upstream(Mono<List<Song>> call, Duration deadline, String source) {
+        long start = System.nanoTime();
+        return call.timeout(deadline)
+                .doOnSuccess(songs -> record(source, "success", start))
+                .doOnError(e -> {
+                    record(source, e instanceof TimeoutException ? "timeout" : "error", start);
+                    log.warn("Search source '{}' failed: {}", source, e.getMessage());
+                })
+                .onErrorResume(e -> Mono.empty())
+                .toFuture();
+    }
+
+    // Records when the source finishes or is cancelled at the deadline
+    private CompletableFuture<List<Song>> timed(CompletableFuture<List<Song>> future, String source) {
+        long start = System.nanoTime();
+        future.whenComplete((songs, e) -> record(source,
+                e == null ? "success" : e instanceof CancellationException ? "cancelled" : "error", start));
+        return future;
+    }
+
+    private void record(String source, String outcome, long startNanos) {
+        Timer.builder("isaithalam.search.source")
+                .description("Time for one search source to answer")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private List<Song> searchLocal(String query) {
+        if (!songSearchIndex.isReady()) {
+            // Index is built once the application is ready; until then use the LIKE query
+            return songRepository.search(query);
+        }
+        List<Long> ids = songSearchIndex.search(query, localLimit);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Song> byId = new HashMap<>();
+        for (Song song : songRepository.findAllById(ids)) {
+            byId.put(song.getId(), song);
+        }
+        List<Song> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Song song = byId.get(id);
+            if (song != null) {
+                ranked.add(song);
+            }
+        }
+        return ranked;
+    }
+
+    @SafeVarargs
+    static List<Song> merge(List<Song>... sources) {
+        // Earlier sources win on duplicate externalId; songs without one are kept as-is
+        Map<String, Song> merged = new LinkedHashMap<>();
+        for (List<Song> source : sources) {
+            if (source == null) {
+                continue;
+            }
+            for (Song song : source) {
+                String key = song.getExternalId() != null && !song.getExternalId().isEmpty()
+                        ? "ext:" + song.getExternalId()
+                        : "id:" + song.getId();
+                merged.putIfAbsent(key, song);
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    // Cancelling the returned future drops the task if it is still queued and interrupts
+    // it if it is running, so a source abandoned at the deadline stops holding a thread
+    private CompletableFuture<List<Song>> submit(Callable<List<Song>> task) {
+        CompletableFuture<List<Song>> future = new CompletableFuture<>();
+        FutureTask<Void> run = new FutureTask<>(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, null);
+        future.whenComplete((songs, e) -> {
+            if (future.isCancelled()) {
+                run.cancel(true);
+            }
+        });
+        try {
+            executor.execute(run);
+        } catch (RuntimeException e) {
+            // Executor saturated: treat the source as failed rather than blocking the request
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private List<Song> await(CompletableFuture<List<Song>> future, long deadline, String source) {
+        long remaining = deadline - System.nanoTime();
+        try {
+            return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            meterRegistry.counter("isaithalam.search.deadline.missed", "source", source).increment();
+            log.warn("Search source '{}' missed the deadline", source);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Search source '{}' failed: {}", source, e.getMessage());
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        executorHandle.close();
+    }
+}
@@ -1,82 +1,249 @@
 package com.isaithalam.service;
 
+import com.isaithalam.dto.CursorPage;
+import com.isaithalam.dto.FacetCount;
+import com.isaithalam.dto.FacetedSearchResult;
+import com.isaithalam.dto.Suggestion;
+import com.isaithalam.dto.TrendingEntry;
 import com.isaithalam.model.Song;
 import com.isaithalam.repository.SongRepository;
+import com.isaithalam.search.FacetIndex;
+import com.isaithalam.search.SongSearchIndex;
+import com.isaithalam.search.SuggestionIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 
 @Service
 public class SongService {
+    private static final Logger log = LoggerFactory.getLogger(SongService.class);
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final SongRepository songRepository;
 
     private final MusicApiService musicApiService;
+    private final SongSearchEngine songSearchEngine;
+    private final SuggestionIndex suggestionIndex;
+    private final PlayCounterService playCounterService;
+    private final TrendingService trendingService;
+    private final ReactiveMusicApiService reactiveMusicApiService;
+    private final LikeService likeService;
+    private final SongSearchIndex songSearchIndex;
+    private final FacetIndex facetIndex;
+    private final int facetLimit;
 
-    public SongService(SongRepository songRepository, MusicApiService musicApiService) {
+    public SongService(SongRepository songRepository, MusicApiService musicApiService,
+                       SongSearchEngine songSearchEngine, SuggestionIndex suggestionIndex,
+                       PlayCounterService playCounterService, TrendingService trendingService,
+                       ObjectProvider<ReactiveMusicApiService> reactiveMusicApiService, LikeService likeService,
+                       SongSearchIndex songSearchIndex, FacetIndex facetIndex,
+                       @Value("${isaithalam.facets.max-values:20}") int facetLimit) {
         this.songRepository = songRepository;
         this.musicApiService = musicApiService;
+        this.songSearchEngine = songSearchEngine;
+        this.suggestionIndex = suggestionIndex;
+        this.playCounterService = playCounterService;
+        this.trendingService = trendingService;
+        this.reactiveMusicApiService = reactiveMusicApiService.getIfAvailable();
+        this.likeService = likeService;
+        this.songSearchIndex = songSearchIndex;
+        this.facetIndex = facetIndex;
+        this.facetLimit = facetLimit;
     }
 
-    public List<Song> getAllSongs() {
-        return songRepository.findAll();
+    // Song lists are served in keyset pages ordered by id; a null or empty cursor starts at
+    // the beginning. Throws IllegalArgumentException for a malformed cursor.
+    public CursorPage<Song> getSongs(String cursor, int limit) {
+        return page(cursor, limit, songRepository::findByIdGreaterThanOrderByIdAsc);
     }
 
+    // Every id handed out is a catalogue id, upstream songs included, so an unknown id is
+    // simply not found
     public Song getSongById(Long id) {
         Song song = songRepository.findById(id).orElse(null);
-        if (song == null) {
-            // Try external API
-            song = musicApiService.getSongById(id);
+        return song != null ? withPendingPlays(song) : null;
+    }
+
+    public CompletableFuture<Song> getSongByIdAsync(Long id) {
+        return CompletableFuture.completedFuture(getSongById(id));
+    }
+
+    // For clients still holding an iTunes track id: the track's catalogue song, materialized
+    // on first lookup. The song carries its own local id, not the track id.
+    public CompletableFuture<Song> getByItunesTrackIdAsync(Long trackId) {
+        if (reactiveMusicApiService == null) {
+            return CompletableFuture.completedFuture(musicApiService.getItunesTrack(trackId));
         }
-        return song;
+        return reactiveMusicApiService.getItunesTrack(trackId)
+                .doOnError(e -> log.warn("iTunes track lookup {} failed: {}", trackId, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .toFuture();
     }
 
     public List<Song> getTrending() {
-        // Mix local trending with global trending
-        List<Song> local = songRepository.findTop10ByOrderByPlaysDesc();
-        List<Song> global = musicApiService.getTrending();
-        
-        // Combine them (local first)
-        local.addAll(global);
-        return local;
+        // Local top 10 followed by global trending, both from the precomputed snapshot
+        return trendingService.getTrending();
+    }
+
+    public List<TrendingEntry> getLeaderboard(TrendingService.Window window, int limit) {
+        return trendingService.getLeaderboard(window, pageSize(limit));
+    }
+
+    public CursorPage<Song> getFeatured(String cursor, int limit) {
+        return page(cursor, limit, songRepository::findByFeaturedTrueAndIdGreaterThanOrderByIdAsc);
     }
 
-    public List<Song> getFeatured() {
-        return songRepository.findByFeaturedTrue();
+    // The user's liked songs in id order; the ids come from the in-memory liked set
+    public CursorPage<Song> getLiked(long userId, String cursor, int limit) {
+        return page(cursor, limit, (afterId, rows) -> {
+            List<Long> ids = new ArrayList<>();
+            for (long id : likeService.likedAfter(userId, afterId, rows.max())) {
+                ids.add(id);
+            }
+            List<Song> songs = new ArrayList<>(songRepository.findAllById(ids));
+            songs.sort(Comparator.comparing(Song::getId));
+            return songs;
+        });
     }
 
-    public List<Song> getLiked() {
-        return songRepository.findByLikedTrue();
+    // Of the given song ids, the ones the user likes
+    public List<Long> getLikedAmong(long userId, List<Long> ids) {
+        return likeService.likedAmong(userId, ids);
     }
 
     public List<Song> search(String query) {
-        List<Song> local = songRepository.search(query);
-        List<Song> global = musicApiService.searchSongs(query);
-        
-        local.addAll(global);
-        return local;
+        // Local first, then external results, deduplicated by externalId
+        return songSearchEngine.search(query);
     }
 
-    public List<Song> getByGenre(String genre) {
-        return songRepository.findByGenreIgnoreCase(genre);
+    // Merged results are ranked, not keyed, so search is bounded by a limit instead of paged
+    public CompletableFuture<List<Song>> searchAsync(String query, int limit) {
+        int size = pageSize(limit);
+        return songSearchEngine.searchAsync(query)
+                .thenApply(songs -> songs.size() > size ? new ArrayList<>(songs.subList(0, size)) : songs);
     }
 
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, pageSize(limit));
+    }
+
+    // Genre browsing and the genre list come from the facet index once it is loaded; until
+    // then from the songs table
+    public CursorPage<Song> getByGenre(String genre, String cursor, int limit) {
+        if (!facetIndex.isReady()) {
+            return page(cursor, limit, (afterId, rows) ->
+                    songRepository.findByGenreIgnoreCaseAndIdGreaterThanOrderByIdAsc(genre, afterId, rows));
+        }
+        return page(cursor, limit, (afterId, rows) -> {
+            List<Long> ids = new ArrayList<>();
+            for (long id : facetIndex.songsAfter(FacetIndex.Facet.GENRE, genre, afterId, rows.max())) {
+                ids.add(id);
+            }
+            return findInOrder(ids);
+        });
+    }
+
+    // Genres with the most songs first
     public List<String> getAllGenres() {
-        return songRepository.findAllGenres();
+        if (!facetIndex.isReady()) {
+            return songRepository.findAllGenres();
+        }
+        List<String> genres = new ArrayList<>();
+        for (FacetCount genre : facetIndex.counts(FacetIndex.Facet.GENRE, Integer.MAX_VALUE)) {
+            genres.add(genre.getValue());
+        }
+        return genres;
     }
 
-    public Song incrementPlays(Long id) {
-        Song song = songRepository.findById(id).orElse(null);
-        if (song != null) {
-            song.setPlays(song.getPlays() + 1);
-            songRepository.save(song);
+    // Local catalogue songs matching the query (if any) and every filter, ranked by the
+    // search index or, without a query, by plays; with facet counts over all the matches.
+    // Upstream songs are part of the catalogue once a search has materialized them.
+    // Throws IllegalStateException while the indexes are still loading.
+    public FacetedSearchResult facetedSearch(String query, Map<FacetIndex.Facet, String> filters, int limit) {
+        boolean hasQuery = query != null && !query.isBlank();
+        if (!facetIndex.isReady() || (hasQuery && !songSearchIndex.isReady())) {
+            throw new IllegalStateException("Catalogue index is still loading");
         }
-        return song;
+        List<Long> ranked = hasQuery ? songSearchIndex.search(query, Integer.MAX_VALUE) : null;
+        FacetIndex.Result result = facetIndex.filter(ranked, filters, pageSize(limit), facetLimit);
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        for (Map.Entry<FacetIndex.Facet, List<FacetCount>> e : result.counts().entrySet()) {
+            facets.put(e.getKey().key(), e.getValue());
+        }
+        return new FacetedSearchResult(withPendingPlays(findInOrder(result.ids())), result.total(), facets);
     }
 
-    public Song toggleLike(Long id) {
-        Song song = songRepository.findById(id).orElse(null);
-        if (song != null) {
-            song.setLiked(!song.isLiked());
-            songRepository.save(song);
+    // Current play count after this play, or null if the song does not exist
+    public Long incrementPlays(Long id) {
+        return playCounterService.recordPlay(id);
+    }
+
+    // Whether the user likes the song after the toggle, or null if the song does not exist
+    public Boolean toggleLike(long userId, Long id) {
+        return likeService.toggle(userId, id);
+    }
+
+    // Fetches one row past the page to learn whether there is a next page without a count query
+    private CursorPage<Song> page(String cursor, int limit, BiFunction<Long, Limit, List<Song>> query) {
+        int size = pageSize(limit);
+        long afterId = cursor == null || cursor.isEmpty() ? 0 : KeysetCursor.decode(cursor, 1)[0];
+        List<Song> rows = query.apply(afterId, Limit.of(size + 1));
+        String next = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            next = KeysetCursor.encode(rows.get(size - 1).getId());
+        }
+        return new CursorPage<>(withPendingPlays(rows), next);
+    }
+
+    // The songs with the given ids, in the order of the ids; ids without a row are skipped
+    private List<Song> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Song> byId = new HashMap<>();
+        for (Song song : songRepository.findAllById(ids)) {
+            byId.put(song.getId(), song);
+        }
+        List<Song> songs = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Song song = byId.get(id);
+            if (song != null) {
+                songs.add(song);
+            }
+        }
+        return songs;
+    }
+
+    static int pageSize(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    }
+
+    // Rows only hold flushed counts; add what is still buffered so reads don't lag plays
+    private List<Song> withPendingPlays(List<Song> songs) {
+        for (Song song : songs) {
+            withPendingPlays(song);
+        }
+        return songs;
+    }
+
+    private Song withPendingPlays(Song song) {
+        long pending = playCounterService.pendingPlays(song.getId());
+        if (pending > 0) {
+            song.setPlays(song.getPlays() + pending);
         }
         return song;
     }
@@ -0,0 +1,221 @@
+package com.isaithalam.service;
+
+import com.isaithalam.dto.TrendingEntry;
+import com.isaithalam.model.Song;
+import com.isaithalam.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Trending leaderboards kept entirely in memory. Every play lands in a per-song ring of
+// time buckets for each window; a scheduled refresh ranks the active songs with a
+// size-k heap and publishes immutable snapshots, so reads never hit the DB or upstream.
+@Service
+public class TrendingService implements PlayCounterService.PlayListener {
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    public enum Window {
+        HOUR(Duration.ofHours(1), 60),
+        DAY(Duration.ofDays(1), 96),
+        WEEK(Duration.ofDays(7), 168);
+
+        final long bucketMs;
+        final int buckets;
+
+        Window(Duration length, int buckets) {
+            this.bucketMs = length.toMillis() / buckets;
+            this.buckets = buckets;
+        }
+
+        public static Window parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // Plays per bucket; a slot is reset when its bucket number comes round again
+    private static final class RingCounter {
+        private final long[] counts;
+        private final long[] bucketIds;
+
+        RingCounter(int size) {
+            counts = new long[size];
+            bucketIds = new long[size];
+            Arrays.fill(bucketIds, -1);
+        }
+
+        void add(long bucket) {
+            int slot = (int) (bucket % counts.length);
+            if (bucketIds[slot] != bucket) {
+                bucketIds[slot] = bucket;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+        }
+
+        long sum(long currentBucket) {
+            long oldest = currentBucket - counts.length;
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (bucketIds[i] > oldest && bucketIds[i] <= currentBucket) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final class Activity {
+        final RingCounter[] windows = new RingCounter[Window.values().length];
+        volatile long lastPlayMs;
+
+        Activity() {
+            for (Window w : Window.values()) {
+                windows[w.ordinal()] = new RingCounter(w.buckets);
+            }
+        }
+
+        synchronized void record(long now) {
+            for (Window w : Window.values()) {
+                windows[w.ordinal()].add(now / w.bucketMs);
+            }
+            lastPlayMs = now;
+        }
+
+        synchronized long plays(Window w, long now) {
+            return windows[w.ordinal()].sum(now / w.bucketMs);
+        }
+    }
+
+    private record Ranked(Long songId, long plays) {}
+
+    private final SongRepository songRepository;
+    private final MusicApiService musicApiService;
+    private final int topK;
+
+    private final Map<Long, Activity> activity = new ConcurrentHashMap<>();
+    private volatile Map<Window, List<TrendingEntry>> leaderboards = emptyLeaderboards();
+    private volatile List<Song> topLocal = List.of();
+    private volatile List<Song> global = List.of();
+
+    public TrendingService(SongRepository songRepository, MusicApiService musicApiService,
+                           @Value("${isaithalam.trending.top-k:50}") int topK) {
+        this.songRepository = songRepository;
+        this.musicApiService = musicApiService;
+        this.topK = topK;
+    }
+
+    @Override
+    public void onPlay(Long songId, long timestampMs) {
+        activity.computeIfAbsent(songId, id -> new Activity()).record(timestampMs);
+    }
+
+    public List<TrendingEntry> getLeaderboard(Window window, int limit) {
+        List<TrendingEntry> board = leaderboards.get(window);
+        return board.size() > limit ? board.subList(0, limit) : board;
+    }
+
+    // Local all-time top 10 followed by the upstream chart, as served by /api/songs/trending
+    public List<Song> getTrending() {
+        List<Song> local = topLocal;
+        List<Song> upstream = global;
+        List<Song> combined = new ArrayList<>(local.size() + upstream.size());
+        combined.addAll(local);
+        combined.addAll(upstream);
+        return combined;
+    }
+
+    @Scheduled(fixedDelayString = "${isaithalam.trending.refresh-ms:5000}")
+    public void refreshLeaderboards() {
+        long now = System.currentTimeMillis();
+        long idleCutoff = now - Duration.ofDays(7).toMillis();
+        activity.values().removeIf(a -> a.lastPlayMs < idleCutoff);
+
+        Map<Window, List<Ranked>> rankings = new EnumMap<>(Window.class);
+        List<Long> ids = new ArrayList<>();
+        for (Window w : Window.values()) {
+            List<Ranked> ranked = topByPlays(w, now);
+            rankings.put(w, ranked);
+            for (Ranked r : ranked) {
+                ids.add(r.songId());
+            }
+        }
+
+        try {
+            // Loaded here, off the request path; snapshot songs are never mutated afterwards
+            Map<Long, Song> songs = new HashMap<>();
+            if (!ids.isEmpty()) {
+                for (Song song : songRepository.findAllById(ids)) {
+                    songs.put(song.getId(), song);
+                }
+            }
+            Map<Window, List<TrendingEntry>> boards = new EnumMap<>(Window.class);
+            for (Map.Entry<Window, List<Ranked>> e : rankings.entrySet()) {
+                List<TrendingEntry> board = new ArrayList<>(e.getValue().size());
+                for (Ranked r : e.getValue()) {
+                    Song song = songs.get(r.songId());
+                    if (song != null) {
+                        board.add(new TrendingEntry(board.size() + 1, r.plays(), song));
+                    }
+                }
+                boards.put(e.getKey(), Collections.unmodifiableList(board));
+            }
+            leaderboards = boards;
+            topLocal = List.copyOf(songRepository.findTop10ByOrderByPlaysDesc());
+        } catch (Exception e) {
+            log.warn("Error refreshing trending leaderboards: {}", e.getMessage());
+        }
+    }
+
+    // Upstream chart is refreshed on its own schedule so a slow provider can't hold up the local boards
+    @Scheduled(fixedDelayString = "${isaithalam.trending.global-refresh-ms:60000}")
+    public void refreshGlobal() {
+        List<Song> songs = musicApiService.getTrending();
+        if (!songs.isEmpty() || global.isEmpty()) {
+            global = List.copyOf(songs);
+        }
+    }
+
+    private List<Ranked> topByPlays(Window window, long now) {
+        // Min-heap of the best k seen so far
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(topK + 1,
+                (a, b) -> a.plays() != b.plays() ? Long.compare(a.plays(), b.plays()) : Long.compare(b.songId(), a.songId()));
+        for (Map.Entry<Long, Activity> e : activity.entrySet()) {
+            long plays = e.getValue().plays(window, now);
+            if (plays == 0) {
+                continue;
+            }
+            heap.offer(new Ranked(e.getKey(), plays));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+        List<Ranked> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll());
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    private static Map<Window, List<TrendingEntry>> emptyLeaderboards() {
+        Map<Window, List<TrendingEntry>> boards = new EnumMap<>(Window.class);
+        for (Window w : Window.values()) {
+            boards.put(w, List.of());
+        }
+        return boards;
+    }
+}
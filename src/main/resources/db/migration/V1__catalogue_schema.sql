@@ -0,0 +1,54 @@
+-- Schema for the persistent profile, matching the JPA entities (ddl-auto=validate checks it).
+-- Later schema changes go in new V<n>__*.sql files; applied migrations are never edited.
+
+CREATE TABLE artists (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    bio VARCHAR(1000),
+    image_url VARCHAR(255)
+);
+
+CREATE TABLE songs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(255),
+    artist_name VARCHAR(255),
+    album_name VARCHAR(255),
+    genre VARCHAR(255),
+    duration INTEGER NOT NULL,
+    audio_url VARCHAR(255),
+    video_url VARCHAR(255),
+    cover_image_url VARCHAR(255),
+    plays BIGINT,
+    liked BOOLEAN NOT NULL,
+    featured BOOLEAN NOT NULL,
+    external_id VARCHAR(255)
+);
+CREATE INDEX idx_songs_featured ON songs (featured, id);
+CREATE INDEX idx_songs_liked ON songs (liked, id);
+
+CREATE TABLE playlists (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    cover_url VARCHAR(255),
+    user_id BIGINT
+);
+
+CREATE TABLE playlist_songs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    playlist_id BIGINT NOT NULL,
+    song_id BIGINT NOT NULL,
+    position BIGINT NOT NULL,
+    CONSTRAINT uk_playlist_song UNIQUE (playlist_id, song_id)
+);
+CREATE INDEX idx_playlist_position ON playlist_songs (playlist_id, position);
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    password VARCHAR(255),
+    avatar_url VARCHAR(255),
+    provider VARCHAR(255) CHECK (provider IN ('GOOGLE', 'PHONE', 'EMAIL'))
+);
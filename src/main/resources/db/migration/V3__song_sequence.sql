@@ -0,0 +1,9 @@
+-- Song ids move from an identity column to songs_seq, handed out in blocks of 50
+-- (Song.ID_BLOCK_SIZE); each sequence value is the top of its block. Restarting just
+-- past the current ids keeps existing rows and references unchanged.
+CREATE SEQUENCE songs_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE songs_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM songs);
+ALTER TABLE songs ALTER COLUMN id DROP IDENTITY;
+
+-- Bulk imports upsert on the provider id
+ALTER TABLE songs ADD CONSTRAINT uk_songs_external_id UNIQUE (external_id);
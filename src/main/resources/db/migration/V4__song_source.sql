@@ -0,0 +1,5 @@
+-- Songs materialized from upstream providers live alongside the catalogue, keyed by
+-- provider name and the provider's own id; seed and imported rows are 'catalogue'
+ALTER TABLE songs ADD COLUMN source VARCHAR(32) DEFAULT 'catalogue' NOT NULL;
+ALTER TABLE songs DROP CONSTRAINT uk_songs_external_id;
+ALTER TABLE songs ADD CONSTRAINT uk_songs_source_external_id UNIQUE (source, external_id);
@@ -0,0 +1,15 @@
+-- Likes move from a global flag on songs to one row per user and song. Existing likes
+-- become the guest's (user 0), whose likes visitors who are not signed in share.
+CREATE TABLE song_likes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    song_id BIGINT NOT NULL,
+    liked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_song_likes_user_song UNIQUE (user_id, song_id)
+);
+
+INSERT INTO song_likes (user_id, song_id, liked_at)
+SELECT 0, id, CURRENT_TIMESTAMP FROM songs WHERE liked ORDER BY id;
+
+DROP INDEX idx_songs_liked;
+ALTER TABLE songs DROP COLUMN liked;
@@ -74,6 +74,21 @@
         }
     }
 
+    // ---- Liked state ----
+    // Likes are per user, so song objects don't carry them; one call marks a whole list
+    window.loadLikedState = async function (songs) {
+        const ids = [...new Set(songs.map(s => s.id).filter(id => id != null))];
+        for (let i = 0; i < ids.length; i += 200) {
+            const chunk = ids.slice(i, i + 200);
+            const liked = await fetchJSON(`/api/songs/likes?ids=${chunk.join(',')}`);
+            if (!Array.isArray(liked)) return;
+            const likedIds = new Set(liked);
+            songs.forEach(s => {
+                if (chunk.includes(s.id)) s.liked = likedIds.has(s.id);
+            });
+        }
+    };
+
     // ---- Song card HTML ----
     function songCardHTML(song) {
         return `
@@ -115,8 +130,8 @@
 
     // ---- Playlist card HTML ----
     function playlistCardHTML(playlist) {
-        const songCount = playlist.songs ? playlist.songs.length : 0;
-        const firstSongId = playlist.songs && playlist.songs.length > 0 ? playlist.songs[0].id : 1;
+        const songCount = playlist.songCount || 0;
+        const firstSongId = playlist.coverSongId || 1;
         return `
         <div class="song-card" onclick="window.location.href='/playlist/${playlist.id}'">
             <div class="song-card-cover">
@@ -246,7 +261,7 @@
         }
     }
 
-    function showSearchResults(songs, query) {
+    async function showSearchResults(songs, query) {
         const section = document.getElementById('searchResultsSection');
         const title = document.getElementById('searchResultsTitle');
         const results = document.getElementById('searchResults');
@@ -261,6 +276,7 @@
             } else {
                 // Update global state so player can find these songs
                 window.appState.songs = songs;
+                await window.loadLikedState(songs);
                 results.innerHTML = songs.map((s, i) => songListItemHTML(s, i)).join('');
             }
         }
@@ -273,6 +289,7 @@
 
         const playlist = await fetchJSON(`/api/playlists/${playlistId}`);
         if (!playlist) return;
+        playlist.songs = await fetchPlaylistSongs(playlistId);
 
         const nameEl = document.getElementById('playlistName');
         const descEl = document.getElementById('playlistDesc');
@@ -282,9 +299,10 @@
 
         if (nameEl) nameEl.textContent = playlist.name;
         if (descEl) descEl.textContent = playlist.description || '';
-        if (metaEl) metaEl.textContent = `${playlist.songs ? playlist.songs.length : 0} songs`;
+        if (metaEl) metaEl.textContent = `${playlist.songCount || 0} songs`;
 
         if (songsEl && playlist.songs) {
+            await window.loadLikedState(playlist.songs);
             songsEl.innerHTML = playlist.songs.map((s, i) => songListItemHTML(s, i)).join('');
             window.appState.songs = playlist.songs;
         }
@@ -301,6 +319,25 @@
         loadSidebarPlaylists(playlists);
     }
 
+    // Songs are served in keyset pages; follow X-Next-Cursor until the last page
+    async function fetchPlaylistSongs(playlistId) {
+        const songs = [];
+        let cursor = '';
+        do {
+            let res;
+            try {
+                res = await fetch(`/api/playlists/${playlistId}/songs?size=200&cursor=${encodeURIComponent(cursor)}`);
+            } catch (e) {
+                console.error('Fetch error:', e);
+                break;
+            }
+            if (!res.ok) break;
+            songs.push(...await res.json());
+            cursor = res.headers.get('X-Next-Cursor');
+        } while (cursor);
+        return songs;
+    }
+
     // ---- Sidebar playlists ----
     function loadSidebarPlaylists(playlists) {
         const container = document.getElementById('sidebarPlaylists');
@@ -310,7 +347,7 @@
                 <div class="playlist-item-img">📀</div>
                 <div>
                     <div style="font-size:13px;font-weight:500;">${p.name}</div>
-                    <div style="font-size:11px;color:var(--text-muted);">${p.songs ? p.songs.length : 0} songs</div>
+                    <div style="font-size:11px;color:var(--text-muted);">${p.songCount || 0} songs</div>
                 </div>
             </div>
         `).join('');
@@ -321,6 +358,13 @@
         try {
             const res = await fetch(`/api/songs/${songId}/like`, { method: 'PUT' });
             const data = await res.json();
+            [...(window.appState.songs || []), ...(window.playerQueue || [])]
+                .filter(s => s.id == songId)
+                .forEach(s => s.liked = data.liked);
+            document.querySelectorAll(`.song-list-item[data-song-id="${songId}"] .song-list-action-btn`).forEach(btn => {
+                btn.classList.toggle('liked', data.liked);
+                btn.querySelector('svg')?.setAttribute('fill', data.liked ? 'currentColor' : 'none');
+            });
             showToast(data.liked ? 'Added to Liked Songs' : 'Removed from Liked Songs', data.liked ? '❤️' : '💔');
         } catch (e) {
             console.error('Like error:', e);
@@ -447,8 +491,9 @@
     const navLiked = document.getElementById('navLiked');
     if (navLiked) {
         navLiked.addEventListener('click', async () => {
-            const liked = await fetchJSON('/api/songs/liked');
+            const liked = await fetchJSON('/api/songs/liked?limit=200');
             if (liked && liked.length > 0) {
+                liked.forEach(s => s.liked = true);
                 window.playerQueue = liked;
                 window.playSong(liked[0].id);
                 showToast(`Playing ${liked.length} liked songs`, '❤️');
@@ -50,30 +50,13 @@
     function $(id) { return document.getElementById(id); }
 
     // ---- Play a song by ID ----
-    // ---- Play a song by ID ----
+    // Every song, external search results included, has a catalogue id, so anything not
+    // already on the page can be fetched from the backend
     window.playSong = async function (songId) {
         try {
-            let song = null;
-
-            console.log('Playing song request:', songId, typeof songId);
-            console.log('Current queue:', window.playerQueue?.length);
-            console.log('App state songs:', window.appState?.songs?.length);
+            let song = window.playerQueue?.find(s => s.id == songId) // Loose equality
+                || window.appState?.songs?.find(s => s.id == songId);
 
-            // 1. Try to find in current queue or app state first (avoids backend 404 for external songs)
-            if (window.playerQueue && window.playerQueue.length > 0) {
-                song = window.playerQueue.find(s => s.id == songId); // Loose equality
-                if (song) console.log('Found in queue:', song);
-            }
-
-            if (!song && window.appState?.songs) {
-                song = window.appState.songs.find(s => s.id == songId); // Loose equality
-                if (song) console.log('Found in appState:', song);
-                else {
-                    console.log('Not found in appState. Available IDs:', window.appState.songs.map(s => s.id));
-                }
-            }
-
-            // 2. If not found client-side, fetch from backend (only works for local DB songs)
             if (!song) {
                 const res = await fetch(`/api/songs/${songId}`);
                 if (res.ok) {
@@ -86,6 +69,10 @@
                 return;
             }
 
+            if (song.liked === undefined && window.loadLikedState) {
+                await window.loadLikedState([song]);
+            }
+
             currentSong = song;
 
             // Build queue if not set
@@ -93,8 +80,9 @@
                 window.playerQueue = window.appState?.songs || [];
             }
 
-            // Update audio source
-            audio.src = song.audioUrl;
+            // Stream through our media cache (seekable, same-origin); it redirects to the
+            // provider's URL when it cannot cache the track
+            audio.src = `/media/${song.id}`;
             audio.load();
             const playPromise = audio.play();
             if (playPromise !== undefined) {
@@ -0,0 +1,84 @@
+package com.isaithalam.cache;
+
+import com.isaithalam.model.Song;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultCacheTest {
+    private final ResultCache<Long, Song> cache = new ResultCache<>("test", 60_000, 0, 100, 100,
+            song -> 1, Runnable::run, Song::copyOf);
+
+    @Test
+    void callersCannotChangeTheCachedValue() throws Exception {
+        Song loaded = cache.get(1L, () -> song("Original"));
+        loaded.setTitle("Changed by the loading caller");
+
+        Song hit = cache.get(1L, () -> song("Reloaded"));
+        assertThat(hit.getTitle()).isEqualTo("Original");
+        hit.setTitle("Changed by a reader");
+
+        assertThat(cache.get(1L, () -> song("Reloaded")).getTitle()).isEqualTo("Original");
+        assertThat(cache.getAsync(1L, () -> CompletableFuture.completedFuture(song("Reloaded")))
+                .get().getTitle()).isEqualTo("Original");
+    }
+
+    @Test
+    void asyncCallersEachGetTheirOwnCopy() throws Exception {
+        CompletableFuture<Song> upstream = new CompletableFuture<>();
+        CompletableFuture<Song> first = cache.getAsync(2L, () -> upstream);
+        CompletableFuture<Song> second = cache.getAsync(2L, () -> upstream);
+        upstream.complete(song("Shared"));
+
+        first.get().setTitle("Changed");
+
+        assertThat(second.get().getTitle()).isEqualTo("Shared");
+        assertThat(cache.getIfPresent(2L).getTitle()).isEqualTo("Shared");
+    }
+
+    @Test
+    void concurrentAsyncMissesOnOneKeyLoadOnce() throws Exception {
+        int callers = 8;
+        int rounds = 2000;
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            for (long key = 0; key < rounds; key++) {
+                long k = key;
+                CyclicBarrier start = new CyclicBarrier(callers);
+                List<Future<Song>> results = new ArrayList<>();
+                for (int i = 0; i < callers; i++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        // Finishes on another thread, so late callers race the load finishing
+                        return cache.getAsync(k, () -> {
+                            loads.incrementAndGet();
+                            return CompletableFuture.supplyAsync(() -> song("Loaded"));
+                        }).get();
+                    }));
+                }
+                for (Future<Song> result : results) {
+                    assertThat(result.get().getTitle()).isEqualTo("Loaded");
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(rounds);
+    }
+
+    private static Song song(String title) {
+        Song song = new Song();
+        song.setTitle(title);
+        return song;
+    }
+}
@@ -0,0 +1,65 @@
+package com.isaithalam.controller;
+
+import com.isaithalam.config.SecurityConfig;
+import com.isaithalam.dto.CursorPage;
+import com.isaithalam.model.Song;
+import com.isaithalam.service.SongService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The song list endpoints against a mocked SongService, with the application's security rules
+@WebMvcTest(SongController.class)
+@Import(SecurityConfig.class)
+class SongControllerCursorTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private SongService songService;
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        when(songService.getSongs("bogus", 20)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mvc.perform(get("/api/songs").param("cursor", "bogus").param("limit", "20"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    void nextPageIsAdvertisedWithTheCursorReplaced() throws Exception {
+        Song song = new Song();
+        song.setTitle("First");
+        when(songService.getSongs("MQ", 1)).thenReturn(new CursorPage<>(List.of(song), "Mg"));
+
+        mvc.perform(get("/api/songs").param("cursor", "MQ").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("First"))
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
+                .andExpect(header().string("Link", containsString("cursor=Mg")))
+                .andExpect(header().string("Link", containsString("rel=\"next\"")));
+    }
+
+    @Test
+    void lastPageHasNoNextLink() throws Exception {
+        when(songService.getSongs(null, 50)).thenReturn(new CursorPage<>(List.of(), null));
+
+        mvc.perform(get("/api/songs"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Link"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.isaithalam.media;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class MediaCacheTest {
+    private static final int SONG_BYTES = 100_000;
+    private static final int HALF = SONG_BYTES / 2;
+
+    @TempDir
+    Path directory;
+
+    private HttpServer upstream;
+    // Loopback is not a public address, so the policy is a mock that allows everything
+    private final MediaUrlPolicy urlPolicy = mock(MediaUrlPolicy.class);
+    // Paths under /slow/ send half the song, then wait for this before sending the rest
+    private final CountDownLatch sendRest = new CountDownLatch(1);
+    private MediaCache cache;
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = song(path);
+            exchange.getResponseHeaders().set("Content-Type", "audio/mpeg");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (!path.startsWith("/slow/")) {
+                    out.write(body);
+                    return;
+                }
+                out.write(body, 0, HALF);
+                out.flush();
+                if (!sendRest.await(10, TimeUnit.SECONDS) || path.startsWith("/slow/truncated")) {
+                    // Close with the body short of its Content-Length
+                    exchange.getHttpContext().getServer().stop(0);
+                    return;
+                }
+                out.write(body, HALF, body.length - HALF);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        upstream.start();
+        // Room for one and a half songs, so caching a second one evicts the first
+        cache = new MediaCache(new RestTemplate(), urlPolicy, directory.toString(),
+                SONG_BYTES + HALF, SONG_BYTES, 4);
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        cache.shutdown();
+        upstream.stop(0);
+    }
+
+    @Test
+    void responseStillReadsAFileEvictedWhileItIsOpen() throws Exception {
+        download(1L, "/1");
+        try (MediaCache.Handle first = cache.open(1L, url("/1"))) {
+            download(2L, "/2");
+            assertThat(directory.resolve("1.media")).doesNotExist();
+
+            assertThat(read(first, 0, SONG_BYTES)).isEqualTo(song("/1"));
+        }
+    }
+
+    @Test
+    void missIsServedWhileTheDownloadIsStillRunning() throws Exception {
+        try (MediaCache.Handle first = cache.open(3L, url("/slow/3"));
+             MediaCache.Handle second = cache.open(3L, url("/slow/3"))) {
+            assertThat(first.getLength()).isEqualTo(SONG_BYTES);
+            byte[] expected = song("/slow/3");
+
+            // Upstream has sent only the first half so far
+            assertThat(read(first, 0, HALF)).isEqualTo(Arrays.copyOf(expected, HALF));
+            assertThat(read(second, 0, HALF)).isEqualTo(Arrays.copyOf(expected, HALF));
+
+            sendRest.countDown();
+            assertThat(read(first, HALF, SONG_BYTES - HALF))
+                    .isEqualTo(Arrays.copyOfRange(expected, HALF, SONG_BYTES));
+        }
+        awaitDownloads();
+        assertThat(cache.stats()).containsEntry("misses", 1L).containsEntry("coalesced", 1L);
+
+        try (MediaCache.Handle cached = cache.open(3L, url("/slow/3"))) {
+            assertThat(read(cached, 0, SONG_BYTES)).isEqualTo(song("/slow/3"));
+        }
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void truncatedDownloadFailsItsReadersAndIsNotCached() throws IOException {
+        try (MediaCache.Handle media = cache.open(4L, url("/slow/truncated"))) {
+            assertThat(read(media, 0, HALF)).hasSize(HALF);
+            sendRest.countDown();
+
+            assertThatThrownBy(() -> read(media, HALF, SONG_BYTES - HALF)).isInstanceOf(IOException.class);
+        }
+        assertThat(directory.resolve("4.media")).doesNotExist();
+        assertThat(cache.fetchFailureCount()).isEqualTo(1);
+    }
+
+    // Downloads the song through the cache and waits until it is stored
+    private void download(long songId, String path) throws Exception {
+        try (MediaCache.Handle media = cache.open(songId, url(path))) {
+            read(media, 0, media.getLength());
+        }
+        awaitDownloads();
+    }
+
+    // A download is stored just after its last byte is readable
+    private void awaitDownloads() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!cache.stats().get("inFlight").equals(0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + upstream.getAddress().getPort() + path;
+    }
+
+    private static byte[] read(MediaCache.Handle media, long position, long count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        media.transferTo(position, count, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static byte[] song(String path) {
+        byte[] body = new byte[SONG_BYTES];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (path.hashCode() + i);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,47 @@
+package com.isaithalam.media;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MediaUrlPolicyTest {
+
+    private final MediaUrlPolicy policy = new MediaUrlPolicy(new String[] {"soundhelix.com", "saavncdn.com"});
+
+    @Test
+    void allowsListedHostsAndTheirSubdomains() {
+        assertThat(policy.rejectReason("https://www.soundhelix.com/examples/mp3/SoundHelix-Song-1.mp3")).isNull();
+        assertThat(policy.rejectReason("https://aac.saavncdn.com/217/x_320.mp4")).isNull();
+        assertThat(policy.rejectReason("http://soundhelix.com/a.mp3")).isNull();
+    }
+
+    @Test
+    void rejectsOtherHostsAndSchemes() {
+        assertThat(policy.rejectReason("http://127.0.0.1:18089/actuator/prometheus")).isNotNull();
+        assertThat(policy.rejectReason("http://evilsoundhelix.com/a.mp3")).isNotNull();
+        assertThat(policy.rejectReason("http://soundhelix.com@127.0.0.1/a.mp3")).isNotNull();
+        assertThat(policy.rejectReason("file:///etc/passwd")).isNotNull();
+        assertThat(policy.rejectReason("/media/3")).isNotNull();
+        assertThat(policy.rejectReason(null)).isNotNull();
+    }
+
+    @Test
+    void refusesNonPublicAddresses() throws IOException {
+        for (String address : new String[] {"127.0.0.1", "10.1.2.3", "172.16.0.1", "192.168.1.1",
+                "169.254.169.254", "0.0.0.0", "100.64.0.1", "::1", "fd00::1", "fe80::1"}) {
+            assertThat(MediaUrlPolicy.isPublic(InetAddress.getByName(address))).as(address).isFalse();
+        }
+        assertThat(MediaUrlPolicy.isPublic(InetAddress.getByName("93.184.216.34"))).isTrue();
+    }
+
+    @Test
+    void checkFetchableRefusesDisallowedHostsWithoutFetching() {
+        assertThatThrownBy(() -> policy.checkFetchable(URI.create("http://localhost:8080/actuator")))
+                .isInstanceOf(IOException.class);
+    }
+}
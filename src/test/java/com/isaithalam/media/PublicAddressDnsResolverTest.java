@@ -0,0 +1,42 @@
+package com.isaithalam.media;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PublicAddressDnsResolverTest {
+    private final DnsResolver system = mock(DnsResolver.class);
+    private final PublicAddressDnsResolver resolver = new PublicAddressDnsResolver(system);
+
+    @Test
+    void passesPublicAddressesThrough() throws UnknownHostException {
+        InetAddress[] addresses = {InetAddress.getByName("93.184.216.34")};
+        when(system.resolve("cdn.soundhelix.com")).thenReturn(addresses);
+
+        assertThat(resolver.resolve("cdn.soundhelix.com")).isEqualTo(addresses);
+    }
+
+    @Test
+    void refusesAHostWithAnyNonPublicAddress() throws UnknownHostException {
+        // What a rebinding host answers on the lookup made for the connection
+        when(system.resolve("cdn.soundhelix.com")).thenReturn(new InetAddress[] {
+                InetAddress.getByName("93.184.216.34"), InetAddress.getByName("169.254.169.254")});
+
+        assertThatThrownBy(() -> resolver.resolve("cdn.soundhelix.com"))
+                .isInstanceOf(UnknownHostException.class)
+                .hasMessageContaining("169.254.169.254");
+    }
+
+    @Test
+    void refusesLiteralLoopback() {
+        assertThatThrownBy(() -> new PublicAddressDnsResolver().resolve("127.0.0.1"))
+                .isInstanceOf(UnknownHostException.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.isaithalam.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+    private static final long SLOW_MS = 100;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(SLOW_MS);
+    private static final long LONG_OPEN_MS = 60_000;
+
+    // Window of 10, judged from 4 calls on, tripping at 50% failed or 50% slow
+    private static CircuitBreaker breaker(long openDurationMs, int halfOpenCalls) {
+        return new CircuitBreaker("test", 10, 4, 50, 50, SLOW_MS, openDurationMs, halfOpenCalls);
+    }
+
+    @Test
+    void tripsOnFailureRateOnlyOnceMinimumCallsAreSeen() {
+        CircuitBreaker breaker = breaker(LONG_OPEN_MS, 1);
+        fail(breaker, 3);
+        // 100% failed, but only 3 of the 4 calls needed to judge
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // The fourth call, even a success, makes 3 of 4 failed
+        succeed(breaker, 1);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getTripCount()).isEqualTo(1);
+    }
+
+    @Test
+    void staysClosedJustBelowTheFailureRate() {
+        CircuitBreaker breaker = breaker(LONG_OPEN_MS, 1);
+        succeed(breaker, 3);
+        fail(breaker, 2);
+        // 2 of 5 failed is 40%
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker, 1);
+        // 3 of 6 is exactly 50%
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void tripsOnSlowCallsThatSucceed() {
+        CircuitBreaker breaker = breaker(LONG_OPEN_MS, 1);
+        succeed(breaker, 2);
+        for (int i = 0; i < 2; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onSuccess(SLOW);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.stats()).containsEntry("failures", 0L).containsEntry("slowCalls", 2L);
+    }
+
+    @Test
+    void openBreakerRejectsCallsWithoutRunningThem() {
+        CircuitBreaker breaker = breaker(LONG_OPEN_MS, 1);
+        fail(breaker, 4);
+
+        assertThatThrownBy(() -> breaker.call(() -> {
+            throw new AssertionError("must not run while open");
+        })).isInstanceOf(CircuitOpenException.class);
+        assertThat(breaker.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void halfOpenLetsOnlyTheConfiguredProbesThrough() {
+        CircuitBreaker breaker = breaker(0, 2);
+        fail(breaker, 4);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Open duration is over, so the next calls are probes
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedOrSlowProbeOpensTheBreakerAgain() {
+        CircuitBreaker breaker = breaker(0, 2);
+        fail(breaker, 4);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onSuccess(SLOW);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getTripCount()).isEqualTo(2);
+    }
+
+    @Test
+    void callsFinishingWhileOpenDoNotChangeTheVerdict() {
+        CircuitBreaker breaker = breaker(LONG_OPEN_MS, 1);
+        // Two calls start while closed and are still running when the breaker trips
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        fail(breaker, 4);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Object windowCalls = breaker.stats().get("windowCalls");
+
+        breaker.onSuccess(FAST);
+        breaker.onError(FAST);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getTripCount()).isEqualTo(1);
+        assertThat(breaker.stats().get("windowCalls")).isEqualTo(windowCalls);
+    }
+
+    @Test
+    void closingStartsAFreshWindow() {
+        CircuitBreaker breaker = breaker(0, 1);
+        fail(breaker, 4);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.stats()).containsEntry("windowCalls", 0).containsEntry("windowFailureRate", 0.0);
+
+        // The four failures before the trip no longer count towards the minimum
+        fail(breaker, 3);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker, 1);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private static void succeed(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onSuccess(FAST);
+        }
+    }
+
+    private static void fail(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onError(FAST);
+        }
+    }
+}
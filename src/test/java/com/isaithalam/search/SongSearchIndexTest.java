@@ -0,0 +1,55 @@
+package com.isaithalam.search;
+
+import com.isaithalam.model.Song;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SongSearchIndexTest {
+
+    private final SongSearchIndex index = new SongSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild(List.of(
+                song(1L, "Thunder Beat", "Anirudh Ravichander", "Storm Rising"),
+                song(2L, "Moonlit Dance", "A.R. Rahman", "Lunar"),
+                song(3L, "Diamond Sky", "A.R. Rahman", "Crystal"),
+                song(4L, "Veera Vaanam", "Sid Sriram", "Veeram"),
+                song(5L, "Kadhal Rojave", "S. P. Balasubrahmanyam", "Roja")));
+    }
+
+    @Test
+    void partialLastWordMatchesRawPrefix() {
+        assertThat(index.search("t", 10)).contains(1L);
+        assertThat(index.search("th", 10)).containsExactly(1L);
+        assertThat(index.search("thu", 10)).containsExactly(1L);
+        assertThat(index.search("vee", 10)).containsExactly(4L);
+    }
+
+    @Test
+    void partialLastWordIsNotFolded() {
+        assertThat(index.search("tha", 10)).isEmpty();
+        assertThat(index.search("th", 10)).doesNotContain(2L, 3L);
+    }
+
+    @Test
+    void wholeWordsMatchTheirSpellingVariants() {
+        assertThat(index.search("kaadhal", 10)).containsExactly(5L);
+        assertThat(index.search("kathal", 10)).containsExactly(5L);
+        assertThat(index.search("kaadhal roj", 10)).containsExactly(5L);
+        assertThat(index.search("veeram ", 10)).containsExactly(4L);
+    }
+
+    private static Song song(Long id, String title, String artist, String album) {
+        Song song = new Song();
+        song.setId(id);
+        song.setTitle(title);
+        song.setArtistName(artist);
+        song.setAlbumName(album);
+        return song;
+    }
+}
@@ -0,0 +1,79 @@
+package com.isaithalam.search;
+
+import com.isaithalam.dto.Suggestion;
+import com.isaithalam.model.Song;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex();
+
+    @BeforeEach
+    void setUp() {
+        // The songs starting with "d" outweigh "Thunder Beat", as they would crowd it out
+        // if "th" were folded to "d"
+        index.rebuild(List.of(
+                song(1L, "Thunder Beat", "Anirudh Ravichander", "Storm Rising", 100),
+                song(2L, "Moonlit Dance", "A.R. Rahman", "Lunar", 5_000),
+                song(3L, "Diamond Sky", "A.R. Rahman", "Crystal", 6_000),
+                song(4L, "Sunset Diaries", "Shreya Ghoshal", "Evenings", 7_000),
+                song(5L, "Veera Vaanam", "Sid Sriram", "Skyline", 50),
+                song(6L, "Kadhal Rojave", "S. P. Balasubrahmanyam", "Roja", 10)));
+    }
+
+    @Test
+    void halfTypedWordsMatchAsTyped() {
+        assertThat(texts("t")).contains("Thunder Beat");
+        assertThat(texts("th")).contains("Thunder Beat")
+                .doesNotContain("Diamond Sky", "Moonlit Dance", "Sunset Diaries");
+        assertThat(texts("tha")).doesNotContain("Moonlit Dance");
+        assertThat(texts("vee")).contains("Veera Vaanam");
+    }
+
+    @Test
+    void wholeWordsMatchTheirSpellingVariants() {
+        assertThat(texts("kaadhal")).contains("Kadhal Rojave");
+        assertThat(texts("kaadhal ro")).contains("Kadhal Rojave");
+        assertThat(texts("kathal ")).contains("Kadhal Rojave");
+    }
+
+    @Test
+    void removedSongsLeaveNoRawKeysBehind() {
+        index.remove(1L);
+        assertThat(texts("thu")).isEmpty();
+        assertThat(texts("anir")).isEmpty();
+    }
+
+    @Test
+    void snapshotKeepsRawKeys() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeSnapshot(new DataOutputStream(bytes));
+        SuggestionIndex restored = new SuggestionIndex();
+        restored.readSnapshot(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertThat(restored.suggest("th", 10)).extracting(Suggestion::getText).contains("Thunder Beat");
+    }
+
+    private List<String> texts(String prefix) {
+        return index.suggest(prefix, 10).stream().map(Suggestion::getText).toList();
+    }
+
+    private static Song song(Long id, String title, String artist, String album, long plays) {
+        Song song = new Song();
+        song.setId(id);
+        song.setTitle(title);
+        song.setArtistName(artist);
+        song.setAlbumName(album);
+        song.setPlays(plays);
+        return song;
+    }
+}
@@ -0,0 +1,53 @@
+package com.isaithalam.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(42), 1)).containsExactly(42);
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(Long.MIN_VALUE, -1, Long.MAX_VALUE), 3))
+                .containsExactly(Long.MIN_VALUE, -1, Long.MAX_VALUE);
+    }
+
+    @Test
+    void cursorIsSafeToPutInAUrl() {
+        assertThat(KeysetCursor.encode(Long.MIN_VALUE, Long.MAX_VALUE)).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsWhatIsNotBase64() {
+        assertInvalid("not a cursor!", 1);
+        assertInvalid("", 1);
+    }
+
+    @Test
+    void rejectsTheWrongNumberOfKeys() {
+        assertInvalid(KeysetCursor.encode(1, 2), 1);
+        assertInvalid(KeysetCursor.encode(1), 2);
+    }
+
+    @Test
+    void rejectsKeysThatAreNotNumbers() {
+        assertInvalid(base64("12:abc"), 2);
+        assertInvalid(base64(":12"), 2);
+        assertInvalid(base64("99999999999999999999"), 1);
+    }
+
+    private static void assertInvalid(String cursor, int keyCount) {
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, keyCount))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static String base64(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
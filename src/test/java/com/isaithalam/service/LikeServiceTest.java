@@ -0,0 +1,47 @@
+package com.isaithalam.service;
+
+import com.isaithalam.model.SongLike;
+import com.isaithalam.repository.SongLikeRepository;
+import com.isaithalam.repository.SongRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LikeServiceTest {
+    private static final long USER = 7L;
+    private static final long OTHER_USER = 8L;
+    private static final long SONG = 42L;
+
+    private final SongLikeRepository songLikeRepository = mock(SongLikeRepository.class);
+    private final SongRepository songRepository = mock(SongRepository.class);
+    // One cached user, so touching another user evicts the first
+    private final LikeService likeService =
+            new LikeService(songLikeRepository, songRepository, 1, new SimpleMeterRegistry());
+
+    @Test
+    void likeStoredWhileEvictedIsNotLostToAnEarlierLoad() {
+        AtomicBoolean stored = new AtomicBoolean();
+        when(songRepository.existsById(SONG)).thenReturn(true);
+        when(songLikeRepository.findSongIds(OTHER_USER)).thenReturn(List.of());
+        when(songLikeRepository.findSongIds(USER)).thenAnswer(call -> stored.get() ? List.of(SONG) : List.of());
+        when(songLikeRepository.save(any(SongLike.class))).thenAnswer(call -> {
+            // While the toggle is writing, the user is evicted and read again, which loads
+            // a new entry from song_likes before the like is there
+            likeService.likedAmong(OTHER_USER, List.of(SONG));
+            assertThat(likeService.likedAmong(USER, List.of(SONG))).isEmpty();
+            stored.set(true);
+            return call.getArgument(0);
+        });
+
+        assertThat(likeService.toggle(USER, SONG)).isTrue();
+
+        assertThat(likeService.likedAmong(USER, List.of(SONG))).containsExactly(SONG);
+    }
+}
@@ -0,0 +1,88 @@
+package com.isaithalam.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlayCounterServiceTest {
+    private static final long SONG = 42L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlayCounterService service =
+            new PlayCounterService(jdbcTemplate, List.of(), List.of(), new SimpleMeterRegistry());
+    // What the flushes wrote to songs.plays
+    private final AtomicLong written = new AtomicLong();
+
+    PlayCounterServiceTest() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(SONG)))
+                .thenAnswer(call -> List.of(100 + written.get()));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(call -> {
+            List<Object[]> batch = call.getArgument(1);
+            for (Object[] row : batch) {
+                written.addAndGet((Long) row[0]);
+            }
+            return new int[batch.size()];
+        });
+    }
+
+    @Test
+    void idleSongIsDroppedAndItsCountReadAgain() {
+        assertThat(service.recordPlay(SONG)).isEqualTo(101);
+        assertThat(service.recordPlay(SONG)).isEqualTo(102);
+        service.flush();
+        assertThat(written.get()).isEqualTo(2);
+
+        // Not played since the last write, so this flush drops the entry
+        service.flush();
+        assertThat(service.pendingPlays(SONG)).isZero();
+
+        assertThat(service.recordPlay(SONG)).isEqualTo(103);
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq(SONG));
+    }
+
+    @Test
+    void playsRacingFlushesAreAllWritten() throws Exception {
+        int threads = 8;
+        int playsPerThread = 20_000;
+        AtomicBoolean done = new AtomicBoolean();
+        Thread flusher = new Thread(() -> {
+            while (!done.get()) {
+                service.flush();
+            }
+        });
+        flusher.start();
+        List<Thread> players = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread player = new Thread(() -> {
+                for (int i = 0; i < playsPerThread; i++) {
+                    service.recordPlay(SONG);
+                }
+            });
+            players.add(player);
+            player.start();
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        done.set(true);
+        flusher.join();
+        service.flush();
+
+        assertThat(written.get()).isEqualTo((long) threads * playsPerThread);
+        assertThat(service.pendingPlays(SONG)).isZero();
+    }
+}
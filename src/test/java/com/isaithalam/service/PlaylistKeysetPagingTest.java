@@ -0,0 +1,67 @@
+package com.isaithalam.service;
+
+import com.isaithalam.dto.CursorPage;
+import com.isaithalam.model.Song;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Keyset pages of playlist 1 from data.sql (songs 1, 2, 5, 9, 10) while the playlist
+// changes between requests, where offset pages would repeat or skip songs.
+@DataJpaTest
+@Import(PlaylistService.class)
+class PlaylistKeysetPagingTest {
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Test
+    void insertsAheadOfTheCursorDoNotRepeatSongs() {
+        CursorPage<Song> first = playlistService.getPlaylistSongs(1L, null, 2);
+        assertThat(first.getItems()).extracting(Song::getId).containsExactly(1L, 2L);
+
+        // Offset page 2 would now be songs 2 and 5
+        playlistService.addSongToPlaylist(1L, 3L, 0);
+
+        CursorPage<Song> second = playlistService.getPlaylistSongs(1L, first.getNextCursor(), 2);
+        assertThat(second.getItems()).extracting(Song::getId).containsExactly(5L, 9L);
+    }
+
+    @Test
+    void removalsAheadOfTheCursorDoNotSkipSongs() {
+        CursorPage<Song> first = playlistService.getPlaylistSongs(1L, null, 2);
+
+        // Offset page 2 would now be songs 9 and 10
+        playlistService.removeSongFromPlaylist(1L, 1L);
+
+        CursorPage<Song> second = playlistService.getPlaylistSongs(1L, first.getNextCursor(), 2);
+        assertThat(second.getItems()).extracting(Song::getId).containsExactly(5L, 9L);
+    }
+
+    @Test
+    void songsInsertedPastTheCursorAreStillServed() {
+        CursorPage<Song> first = playlistService.getPlaylistSongs(1L, null, 2);
+
+        playlistService.addSongToPlaylist(1L, 3L, 3);
+        playlistService.addSongToPlaylist(1L, 4L, null);
+
+        CursorPage<Song> second = playlistService.getPlaylistSongs(1L, first.getNextCursor(), 2);
+        CursorPage<Song> third = playlistService.getPlaylistSongs(1L, second.getNextCursor(), 2);
+        assertThat(second.getItems()).extracting(Song::getId).containsExactly(5L, 3L);
+        assertThat(third.getItems()).extracting(Song::getId).containsExactly(9L, 10L);
+
+        CursorPage<Song> last = playlistService.getPlaylistSongs(1L, third.getNextCursor(), 2);
+        assertThat(last.getItems()).extracting(Song::getId).containsExactly(4L);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> playlistService.getPlaylistSongs(1L, "bogus", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
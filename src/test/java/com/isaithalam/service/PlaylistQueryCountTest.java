@@ -0,0 +1,97 @@
+package com.isaithalam.service;
+
+import com.isaithalam.dto.CursorPage;
+import com.isaithalam.dto.PlaylistSummary;
+import com.isaithalam.model.Song;
+import com.isaithalam.repository.SongRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statement counts for playlist summaries and song pages against the data.sql catalogue
+// (playlist 1 holds five songs). Each test starts from an empty persistence context, so
+// a lazy load per song would show up as extra statements.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PlaylistService.class)
+class PlaylistQueryCountTest {
+
+    @Autowired
+    private PlaylistService playlistService;
+    @Autowired
+    private SongRepository songRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void playlistSummariesAreOneStatement() {
+        List<PlaylistSummary> summaries = playlistService.getAllPlaylists();
+
+        assertThat(summaries).hasSize(3);
+        assertThat(summaries.get(0).getSongCount()).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void offsetSongPageIsPageAndCount() {
+        Page<Song> page = playlistService.getPlaylistSongs(1L, 0, 2);
+        page.forEach(Song::getTitle);
+
+        assertThat(page.getContent()).extracting(Song::getId).containsExactly(1L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void keysetSongPagesAreOneStatementEach() {
+        CursorPage<Song> first = playlistService.getPlaylistSongs(1L, null, 3);
+        first.getItems().forEach(Song::getTitle);
+        assertThat(first.getItems()).extracting(Song::getId).containsExactly(1L, 2L, 5L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        CursorPage<Song> second = playlistService.getPlaylistSongs(1L, first.getNextCursor(), 3);
+        second.getItems().forEach(Song::getTitle);
+        assertThat(second.getItems()).extracting(Song::getId).containsExactly(9L, 10L);
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyPagesCheckThePlaylistExists() {
+        assertThat(playlistService.getPlaylistSongs(999L, 0, 10)).isNull();
+        assertThat(playlistService.getPlaylistSongs(999L, null, 10)).isNull();
+        assertThat(playlistService.getPlaylistSongs(1L, 5, 10).getContent()).isEmpty();
+    }
+
+    @Test
+    void catalogueKeysetPageIsOneStatement() {
+        List<Song> songs = songRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(10));
+        songs.forEach(Song::getTitle);
+
+        assertThat(songs).hasSize(10).first().extracting(Song::getId).isEqualTo(6L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.isaithalam.service;
+
+import com.isaithalam.model.Song;
+import com.isaithalam.repository.SongRepository;
+import com.isaithalam.search.SongSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SongSearchEngineTest {
+    private static final String QUERY = "anbe";
+    private static final int FALLBACK_MIN_RESULTS = 3;
+
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final SongSearchIndex songSearchIndex = mock(SongSearchIndex.class);
+    private final MusicApiService musicApiService = mock(MusicApiService.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<ReactiveMusicApiService> noReactive = mock(ObjectProvider.class);
+    private final SongSearchEngine engine = new SongSearchEngine(songRepository, songSearchIndex, musicApiService,
+            noReactive, 300, 50, FALLBACK_MIN_RESULTS, 4, 16, 100, new MockEnvironment(), new SimpleMeterRegistry());
+
+    @AfterEach
+    void shutdown() throws Exception {
+        engine.shutdown();
+    }
+
+    @Test
+    void enoughLocalAndSaavnResultsSkipItunes() throws Exception {
+        when(songRepository.search(QUERY)).thenReturn(songs("local", 1));
+        when(musicApiService.searchSaavn(QUERY)).thenReturn(songs("saavn", 2));
+
+        assertThat(engine.search(QUERY)).hasSize(3);
+        verify(musicApiService, never()).searchItunes(anyString());
+    }
+
+    @Test
+    void tooFewResultsFallBackToItunes() throws Exception {
+        when(songRepository.search(QUERY)).thenReturn(songs("local", 1));
+        when(musicApiService.searchSaavn(QUERY)).thenReturn(songs("saavn", 1));
+        when(musicApiService.searchItunes(QUERY)).thenReturn(songs("itunes", 2));
+
+        assertThat(engine.search(QUERY)).extracting(Song::getExternalId)
+                .containsExactly("local-0", "saavn-0", "itunes-0", "itunes-1");
+    }
+
+    @Test
+    void failedSaavnFallsBackToItunes() throws Exception {
+        when(songRepository.search(QUERY)).thenReturn(songs("local", 5));
+        when(musicApiService.searchSaavn(QUERY)).thenThrow(new IOException("saavn down"));
+        when(musicApiService.searchItunes(QUERY)).thenReturn(songs("itunes", 1));
+
+        assertThat(engine.search(QUERY)).hasSize(6);
+    }
+
+    @Test
+    void sourceStillRunningAtTheDeadlineIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(songRepository.search(QUERY)).thenReturn(songs("local", 5));
+        when(musicApiService.searchSaavn(QUERY)).thenAnswer(call -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return List.of();
+        });
+
+        assertThat(engine.search(QUERY)).hasSize(5);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static List<Song> songs(String source, int count) {
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Song song = new Song();
+            song.setExternalId(source + "-" + i);
+            songs.add(song);
+        }
+        return songs;
+    }
+}